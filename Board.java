@@ -7,13 +7,14 @@ import javafx.scene.paint.Paint;
 import java.util.ArrayList;
 
 /*
- * This is the Board class. It creates the visual and logical board of the
- * game. It also handles the actions that deal with pieces on the board (Such
- * as counting the pieces/values).
+ * This is the Board class. It creates the visual board of the game and
+ * renders the logical Position it holds onto. It also handles the actions
+ * that deal with pieces on the board (Such as counting the pieces/values).
  */
 public class Board {
     private Pane pane;
     private final SmartSquare[][] board;
+    private Position position;
     private ArrayList<SmartSquare> highlightedPieces;
     private int blackScore;
     private int whiteScore;
@@ -30,76 +31,39 @@ public class Board {
         this.initialPieces();
     }
 
-    /*
-     * This is the copy constructor. It creates a logical copy of the original board.
-     */
-    public Board(Board gameBoard) {
-        this.board = new SmartSquare[10][10];
-        this.copyBoard(gameBoard.getBoard());
-    }
-
     /*
      * This is the evaluateBoard method. It calculates the overall board score of
      * the current player using the move weights provided to us.
      */
     public int evaluateBoard(Paint currentPlayer) {
-        int boardScore = 0;
-        for (int i = 1; i < 9; i++) {
-            for (int j = 1; j < 9; j++) {
-                if (currentPlayer == Color.BLACK) {
-                    if (this.board[i][j].getPieceColor() == Color.BLACK) {
-                        boardScore += Constants.MOVE_WEIGHTS[i][j];
-                    } else if (this.board[i][j].getPieceColor() == Color.WHITE) {
-                        boardScore -= Constants.MOVE_WEIGHTS[i][j];
-                    }
-                } else {
-                    if (this.board[i][j].getPieceColor() == Color.WHITE) {
-                        boardScore += Constants.MOVE_WEIGHTS[i][j];
-                    } else if (this.board[i][j].getPieceColor() == Color.BLACK) {
-                        boardScore -= Constants.MOVE_WEIGHTS[i][j];
-                    }
-                }
-            }
-        }
-        return boardScore;
+        return this.position.evaluate(getColor(currentPlayer));
     }
 
     /*
-     * This method creates an exact copy of the main this.board onto its copy.
+     * This method gets the piece counts of each color from the position and
+     * sets the instance variables equal to that score. With assertions on
+     * (java -ea) they are checked against the pieces on screen.
      */
-    public void copyBoard(SmartSquare[][] board) {
-        for (int i = 0; i < 10; i++) {
-            for (int j = 0; j < 10; j++) {
-                 if (i != 0 && i != 9 && j != 0 && j != 9) {
-                     this.board[i][j] = new SmartSquare(0, 0, null, true);
-                    if (board[i][j].getPieceColor() == Color.WHITE) {
-                        this.board[i][j].setWhite();
-                    } else if (board[i][j].getPieceColor() == Color.BLACK) {
-                        this.board[i][j].setBlack();
-                    }
-                }
-            }
-        }
+    public void setScores() {
+        this.blackScore = this.position.getBlackCount();
+        this.whiteScore = this.position.getWhiteCount();
+        assert this.blackScore == this.countPieces(Color.BLACK) : "black score out of date";
+        assert this.whiteScore == this.countPieces(Color.WHITE) : "white score out of date";
     }
 
     /*
-     * This method counts up all pieces on the board of each color and sets
-     * the instance variables equal to that score.
+     * This method counts the pieces of a color shown on the board.
      */
-    public void setScores() {
-        this.blackScore = 0;
-        this.whiteScore = 0;
+    private int countPieces(Paint pieceColor) {
+        int count = 0;
         for (int i = 1; i < 9; i++) {
             for (int j = 1; j < 9; j++) {
-                if (this.getPieceColor(i, j) != Color.TRANSPARENT ) {
-                    if (this.getPieceColor(i, j) == Color.BLACK) {
-                        this.blackScore += 1;
-                    } else {
-                        this.whiteScore +=1;
-                    }
+                if (this.getPieceColor(i, j) == pieceColor) {
+                    count += 1;
                 }
             }
         }
+        return count;
     }
 
     /*
@@ -124,43 +88,51 @@ public class Board {
      * in case future designs don't want the initial pieces set.
      */
     public void initialPieces() {
-        this.board[4][4].setBlack();
-        this.board[4][5].setWhite();
-        this.board[5][5].setBlack();
-        this.board[5][4].setWhite();
+        this.position = new Position();
+        this.renderPieces(~0L);
     }
 
     /*
-     * This method checks for a valid move. It calls upon
-     * another method and takes in booleans depending on if
-     * the player has made their move or not.
+     * This method makes the pieces on screen match the position for
+     * every square in the mask.
+     */
+    public void renderPieces(long squares) {
+        while (squares != 0) {
+            int square = Long.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            int row = Position.getRow(square);
+            int col = Position.getCol(square);
+            int piece = this.position.getPiece(row, col);
+            if (piece == Constants.BLACK) {
+                this.board[row][col].setBlack();
+            } else if (piece == Constants.WHITE) {
+                this.board[row][col].setWhite();
+            } else {
+                this.board[row][col].setPieceFill(Color.TRANSPARENT);
+            }
+        }
+    }
+
+    /*
+     * This method checks for a valid move. If the player has clicked,
+     * it also places the piece and flips the sandwiched pieces. justFlip
+     * is true when the move is already known to be valid.
      */
     public boolean checkMoveValidity(int row, int col, Paint playerColor,
                                      boolean hasClicked, boolean justFlip) {
         if (!justFlip) {
-            if (row == 0 || row == 9 || col == 0 || col == 9) {
-                return false;
-            }
-            if (this.board[row][col].getPieceColor() != Color.TRANSPARENT) {
+            if (row < 1 || row > 8 || col < 1 || col > 8) {
                 return false;
             }
         }
 
-        boolean hasSandwich = false;
-        for (int i = -1; i < 2; i++) {
-            for (int j = -1; j < 2; j++) {
-                boolean sandwichOneDir = this.checkOneDirection(row + i, col + j, i, j,
-                        playerColor, false, false);
-                if (sandwichOneDir) {
-                    hasSandwich = true;
-                    if (hasClicked) {
-                        this.checkOneDirection(row + i, col + j, i, j, playerColor,
-                                false, true);
-                    }
-                }
-            }
+        int square = Position.square(row, col);
+        if (!hasClicked) {
+            return this.position.getFlips(square, getColor(playerColor)) != 0;
         }
-        return hasSandwich;
+        long flips = this.position.place(square, getColor(playerColor));
+        this.renderPieces(flips | (1L << square));
+        return flips != 0;
     }
 
     /*
@@ -170,20 +142,12 @@ public class Board {
      */
     public boolean highlightOptions(int row, int col,
                                     Paint playerColor, boolean highlightsSquares) {
-        if (this.board[row][col].getPieceColor() == Color.TRANSPARENT) {
-            int availableMoves = 0;
-            for (int i = -1; i < 2; i++) {
-                for (int j = -1; j < 2; j++) {
-                    boolean sandwichOneDir = this.checkOneDirection(row + i, col + j, i, j, playerColor, false, false);
-                    if (sandwichOneDir) {
-                        availableMoves += 1;
-                        if (highlightsSquares) {
-                            this.highlightMoves(row, col);
-                        }
-                    }
-                }
+        long moves = this.position.getMoves(getColor(playerColor));
+        if ((moves & (1L << Position.square(row, col))) != 0) {
+            if (highlightsSquares) {
+                this.highlightMoves(row, col);
             }
-            return availableMoves != 0;
+            return true;
         }
         return false;
     }
@@ -207,34 +171,7 @@ public class Board {
      * piece and checks if it's an available move.
      */
     public void setHighlightedPieces(Paint playerColor) {
-        for (int i = 1; i < 9; i++) {
-            for (int j = 1; j < 9; j++) {
-                this.highlightOptions(i, j, playerColor, true);
-            }
-        }
-    }
-
-    /*
-     * This method is used recursively to check if a move
-     * has a sandwich (is valid).
-     */
-    public boolean checkOneDirection(int row, int col, int rowDir, int colDir,
-                                     Paint playerColor, boolean seenOpponent, boolean inFlipMode) {
-        if (this.board[row][col] == null) {
-            return false;
-        }
-        Paint pieceColor = this.board[row][col].getPieceColor();
-        if (pieceColor == Color.TRANSPARENT) {
-            return false;
-        }
-        if (pieceColor != playerColor) {
-            if (inFlipMode) {
-                this.flip(row, col);
-            }
-            return this.checkOneDirection(row + rowDir, col + colDir, rowDir, colDir,
-                    playerColor, true, inFlipMode);
-        }
-        return seenOpponent;
+        this.areNoMoves(playerColor, true);
     }
 
     /*
@@ -291,27 +228,27 @@ public class Board {
      * This method checks if no moves are available.
      */
     public boolean areNoMoves(Paint pieceColor, boolean highlightsSquares) {
-        int count = 0;
-        for (int i = 1; i < 9; i++) {
-            for (int j = 1; j < 9; j++) {
-                if (this.highlightOptions(i, j, pieceColor, highlightsSquares)) {
-                    count += 1;
-                }
+        long moves = this.position.getMoves(getColor(pieceColor));
+        if (highlightsSquares) {
+            long squares = moves;
+            while (squares != 0) {
+                int square = Long.numberOfTrailingZeros(squares);
+                squares &= squares - 1;
+                this.highlightMoves(Position.getRow(square), Position.getCol(square));
             }
         }
-        return count == 0;
+        return moves == 0;
     }
 
     /*
-     * This method flips the color of the pieces.
+     * This method turns a piece Paint into the Constants.BLACK/WHITE
+     * color used by Position.
      */
-    public void flip(int row, int col) {
-        Paint pieceColor = this.board[row][col].getPieceColor();
-        if (pieceColor == Color.WHITE) {
-            this.board[row][col].setPieceFill(Color.BLACK);
-        } else {
-            this.board[row][col].setPieceFill(Color.WHITE);
+    public static int getColor(Paint pieceColor) {
+        if (pieceColor == Color.BLACK) {
+            return Constants.BLACK;
         }
+        return Constants.WHITE;
     }
 
     /*
@@ -321,6 +258,16 @@ public class Board {
         return this.board[i][j].getPieceColor();
     }
 
+    /*
+     * This getter method gets a copy of the logical position with
+     * the given player to move.
+     */
+    public Position getPosition(Paint playerColor) {
+        Position copy = new Position(this.position);
+        copy.setSideToMove(getColor(playerColor));
+        return copy;
+    }
+
     /*
      * This getter method gets SmartSquare 2d array.
      */
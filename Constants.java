@@ -13,6 +13,28 @@ public class Constants {
     public static final int HIGH_VAL = 1000000;
     public static final int LOW_VAL = -1000000;
     public static final int NEUTRAL_VAL = 0;
+    public static final int INFINITE_VAL = 1000001;
+    public static final int MOBILITY_WEIGHT = 10;
+    public static final int TABLE_MEGABYTES = 16;
+    public static final int SEARCH_THREADS = Runtime.getRuntime().availableProcessors();
+    public static final int MIN_SPLIT_DEPTH = 3;
+    public static final boolean LAZY_SMP = false;
+    public static final int ENDGAME_EMPTIES = 14;
+    // a win/loss/draw solve costs about a quarter of an exact one, so it can start two squares earlier
+    public static final int WLD_EMPTIES = 16;
+    // half the width of the root's first window around the last depth's value, or 0 for none
+    public static final int ASPIRATION_WINDOW = 25;
+    public static final String BOOK_FILE = "othello.book";
+    public static final String PROBCUT_FILE = "othello.probcut";
+    public static final String PATTERN_FILE = "othello.patterns";
+    // how many standard deviations out a shallow value must be for Multi-ProbCut to cut, or 0 for none
+    public static final double PROBCUT_CONFIDENCE = 1.5;
+    public static final boolean PONDER = true;
+    // pause between the moves of a computer against computer game, only so it can be watched
+    public static final long COMPUTER_GAME_DELAY_MILLIS = 300;
+    // per-move search budgets of each computer level (index 0 is the human)
+    public static final long[] LEVEL_TIME_MILLIS = {0, 100, 500, 2000};
+    public static final long[] LEVEL_NODE_LIMITS = {0, 50000, 1000000, Long.MAX_VALUE};
     public static final int[][] MOVE_WEIGHTS = {{0, 0, 0, 0, 0, 0, 0, 0, 0, 0},
             {0, 200, -70, 30, 25, 25, 30, -70, 200, 0},
             {0, -70, -100, -10, -10, -10, -10, -100, -70, 0},
@@ -25,5 +47,6 @@ public class Constants {
             {0, 0, 0, 0, 0, 0, 0, 0, 0, 0}};
     public static final int WHITE = 0;
     public static final int BLACK = 1;
+    public static final int EMPTY = -1;
     public static final int CONTROLS_PANE_WIDTH = 250;
 }
@@ -10,6 +10,9 @@ import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Paint;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
 
 /*
  * Controls sets up the GUI for the game menu, allowing the user to pick the
@@ -23,6 +26,10 @@ public class Controls {
   private Label whiteScore;
   private Label blackScore;
   private Label whosTurn;
+  private Label statsLabel;
+  // the newest search stats, and whether the FX thread has yet to show them
+  private final AtomicReference<SearchStats> latestStats = new AtomicReference<>();
+  private final AtomicBoolean statsPending = new AtomicBoolean();
   private Pane pane;
   private Referee referee;
   private boolean finishedGame;
@@ -40,7 +47,7 @@ public class Controls {
     this.finishedGame = false;
     this.controlsPane = new VBox();
     this.controlsPane.setPadding(new Insets(10));
-    this.controlsPane.setSpacing(30);
+    this.controlsPane.setSpacing(20);
     this.controlsPane.setAlignment(Pos.CENTER);
 
     this.setupInstructions();
@@ -68,9 +75,16 @@ public class Controls {
     scoreLabels.setSpacing(30);
     scoreLabels.setAlignment(Pos.CENTER);
     scoreLabels.getChildren().addAll(this.whiteScore, this.blackScore);
+    this.statsLabel = new Label();
+    this.statsLabel.setWrapText(true);
+    this.statsLabel.setMaxWidth(Constants.CONTROLS_PANE_WIDTH);
+    VBox scorePanel = new VBox();
+    scorePanel.setSpacing(5);
+    scorePanel.setAlignment(Pos.CENTER);
+    scorePanel.getChildren().addAll(scoreLabels, this.statsLabel);
     this.whosTurn = new Label( "Black's Turn to Move");
 
-    this.playerButtons = new RadioButton[2][4];
+    this.playerButtons = new RadioButton[2][Constants.LEVEL_TIME_MILLIS.length];
 
     this.borderChanger = new ColorPicker();
     this.borderChanger.setFocusTraversable(false);
@@ -82,7 +96,7 @@ public class Controls {
     playersMenu.getChildren().addAll(this.playerMenu(Constants.WHITE),
         this.playerMenu(Constants.BLACK));
 
-    this.controlsPane.getChildren().addAll(scoreLabels, this.borderChanger, this.whosTurn, playersMenu);
+    this.controlsPane.getChildren().addAll(scorePanel, this.borderChanger, this.whosTurn, playersMenu);
   }
 
   /*
@@ -111,9 +125,11 @@ public class Controls {
     humanButton.setSelected(true);
     this.playerButtons[player][0] = humanButton;
 
-    // Computer Players.
-    for (int i = 1; i < 4; i++) {
+    // Computer Players, one per search budget level.
+    for (int i = 1; i < Constants.LEVEL_TIME_MILLIS.length; i++) {
       RadioButton computerButton = new RadioButton("Computer " + i + "  ");
+      computerButton.setTooltip(new Tooltip(
+          Constants.LEVEL_TIME_MILLIS[i] + " ms per move"));
       computerButton.setToggleGroup(toggleGroup);
       this.playerButtons[player][i] = computerButton;
     }
@@ -155,7 +171,7 @@ public class Controls {
       int whitePlayerMode = 0;
       int blackPlayerMode = 0;
       for (int player = 0; player < 2; player++) {
-        for (int mode = 0; mode < 4; mode++) {
+        for (int mode = 0; mode < this.playerButtons[player].length; mode++) {
           if (this.playerButtons[player][mode].isSelected()) {
             if (player == Constants.WHITE) {
               whitePlayerMode = mode;
@@ -164,9 +180,9 @@ public class Controls {
             }
           }
         }
-        if (this.game != null) {
+      }
+      if (this.game != null) {
         this.game.startGame(whitePlayerMode, blackPlayerMode);
-        }
       }
   }
 
@@ -192,8 +208,9 @@ public class Controls {
       this.whosTurn.setText("Black's Turn to Move");
       this.whiteScore.setText("White: 2");
       this.blackScore.setText("Black: 2");
+      this.statsLabel.setText("");
       if (this.referee != null) {
-        this.referee.stopTimeline();
+        this.referee.stopGame();
       }
     }
 
@@ -208,6 +225,43 @@ public class Controls {
       this.blackScore.setText("Black: " + this.board.getBlackScore());
     }
 
+    /*
+     * This method shows a computer player's search stats. It can be
+     * called from the search thread as often as it likes: only the
+     * newest stats are kept, and the FX thread is only asked to show them
+     * when it has shown the ones before.
+     */
+    public void publishStats(SearchStats stats) {
+      this.latestStats.set(stats);
+      if (this.statsPending.compareAndSet(false, true)) {
+        Platform.runLater(() -> {
+          this.statsPending.set(false);
+          this.showStats(this.latestStats.get());
+        });
+      }
+    }
+
+    /*
+     * This method writes the search stats into the stats Label.
+     */
+    private void showStats(SearchStats stats) {
+      if (stats.isBook()) {
+        this.statsLabel.setText("Book move " + stats.getPrincipalVariation()
+            + "\nAverage disc difference " + stats.getScore());
+        return;
+      }
+      String ponder = "";
+      if (stats.isPonderHit()) {
+        ponder = "Ponder hit, ";
+      }
+      this.statsLabel.setText(ponder + String.format(
+          "Depth %d (selective %d), %d ms%n%,d nodes, %,.0f nodes/s%n"
+          + "TT hits %.1f%%, TT cutoffs %.1f%%%nBeta cutoffs %.1f%%, score %d%nPV %s",
+          stats.getDepth(), stats.getSelectiveDepth(), stats.getMillis(), stats.getNodes(),
+          stats.getNodesPerSecond(), 100 * stats.getTableHitRate(), 100 * stats.getTableCutoffRate(),
+          100 * stats.getBetaCutoffRate(), stats.getScore(), stats.getPrincipalVariation()));
+    }
+
     /*
      * This method sets the whosTurn Label to display the winner.
      */
@@ -218,10 +272,15 @@ public class Controls {
 
   /*
    * This setter method handles two-way association between
-   * the controls and the referee.
+   * the controls and the referee. The previous game is stopped
+   * so its computer players stop searching.
    */
     public void setReferee(Referee referee) {
+      if (this.referee != null && this.referee != referee) {
+        this.referee.stopGame();
+      }
       this.referee = referee;
+      this.finishedGame = false;
     }
 
   /**
@@ -0,0 +1,326 @@
+package othello;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * This is the EndgameSolver class. Once few enough squares are empty, it
+ * searches every move to the end of the game instead of guessing with the
+ * move weights, so the computer plays the endgame perfectly. Scores are
+ * final disc differences from the view of the player to move. Moves are
+ * tried with the fewest opponent replies first, then by region parity
+ * (odd regions first) near the end, and the last four empty squares are
+ * solved by trying each empty square directly.
+ */
+public class EndgameSolver {
+    private static final int CHECK_INTERVAL = 4096;
+    private static final int FASTEST_FIRST_EMPTIES = 7;
+    private static final int SMALL_EMPTIES = 4;
+    private static final long[] QUADRANTS = {0x000000000f0f0f0fL, 0x00000000f0f0f0f0L,
+        0x0f0f0f0f00000000L, 0xf0f0f0f000000000L};
+    private static final long CORNERS = 0x8100000000000081L;
+
+    private final Search search;
+    private long nodes;
+    // the moves of the node being solved with each number of empty squares, made when first needed
+    private final int[][] moveStack = new int[65][];
+
+    /*
+     * This constructor sets the Search whose budget, stop flag and pool
+     * the solver uses.
+     */
+    public EndgameSolver(Search search) {
+        this.search = search;
+    }
+
+    /*
+     * This method solves the position and returns the move with the best
+     * final disc difference, choosing at random between equal moves in
+     * square order. With winLossDraw true it only finds out whether each
+     * move wins, draws or loses, which is much faster: every move is
+     * solved with the window (-1, 1), and its value is 1, 0 or -1. It returns null if
+     * the search was stopped, by a cancel or by the time or node budget
+     * running out.
+     */
+    public Move solve(Position position, boolean winLossDraw, Random random) {
+        long own = position.getOwn();
+        long opp = position.getOpp();
+        long moves = position.getMoves();
+        int[] squares = new int[Long.bitCount(moves)];
+        this.orderMoves(own, opp, moves, Long.bitCount(position.getEmpty()), squares);
+        int[] values = new int[squares.length];
+
+        // alpha sits just below the best value so that equal moves
+        // still get an exact value and can join the random choice. Win,
+        // draw or loss only needs the window (-1, 1) for every move, so
+        // the best value is held at 0.
+        int bestVal = -65;
+        int beta = 65;
+        if (winLossDraw) {
+            bestVal = 0;
+            beta = 1;
+        }
+        values[0] = this.getMoveValue(own, opp, squares[0], bestVal - 1, beta);
+        if (!winLossDraw) {
+            bestVal = values[0];
+        }
+        ForkJoinPool pool = this.search.getPool();
+        if (pool != null && squares.length > 2) {
+            this.solveSiblings(pool, own, opp, squares, values, bestVal, beta, !winLossDraw);
+        } else {
+            for (int k = 1; k < squares.length; k++) {
+                values[k] = this.getMoveValue(own, opp, squares[k], bestVal - 1, beta);
+                if (!winLossDraw) {
+                    bestVal = Math.max(bestVal, values[k]);
+                }
+            }
+        }
+        this.search.addNodes(this.nodes);
+        this.nodes = 0;
+        if (this.search.isStopped()) {
+            return null;
+        }
+        if (winLossDraw) {
+            // every win is as good as any other, and so is every loss
+            for (int k = 0; k < values.length; k++) {
+                values[k] = Integer.signum(values[k]);
+            }
+        }
+
+        return Search.chooseMove(squares, values, random);
+    }
+
+    /*
+     * This method solves the root moves after the first in parallel.
+     * Each one gets its own solver and, if raiseAlpha is true, they share
+     * one alpha that rises with the best value found.
+     */
+    private void solveSiblings(ForkJoinPool pool, long own, long opp, int[] squares, int[] values,
+                               int alpha, int beta, boolean raiseAlpha) {
+        AtomicInteger sharedAlpha = new AtomicInteger(alpha);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int k = 1; k < squares.length; k++) {
+            int index = k;
+            tasks.add(ForkJoinTask.adapt(() -> {
+                EndgameSolver solver = new EndgameSolver(this.search);
+                values[index] = solver.getMoveValue(own, opp, squares[index], sharedAlpha.get() - 1, beta);
+                this.search.addNodes(solver.nodes);
+                if (raiseAlpha) {
+                    sharedAlpha.accumulateAndGet(values[index], Math::max);
+                }
+            }));
+        }
+        try {
+            pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        } catch (RejectedExecutionException e) {
+            // the search was shut down while it was running
+            for (int k = 1; k < squares.length; k++) {
+                values[k] = -65;
+            }
+        }
+    }
+
+    /*
+     * This method plays a move and returns its final disc difference
+     * from the mover's view.
+     */
+    private int getMoveValue(long own, long opp, int square, int alpha, int beta) {
+        long flips = Position.findFlips(own, opp, square);
+        long newOwn = own | flips | (1L << square);
+        long newOpp = opp & ~flips;
+        int empties = Long.bitCount(~(newOwn | newOpp));
+        return -this.solve(newOpp, newOwn, -beta, -alpha, empties, false);
+    }
+
+    /*
+     * This method is the recursive part of the solver. own are the pieces
+     * of the player to move. passed is true if the other player just passed.
+     */
+    private int solve(long own, long opp, int alpha, int beta, int empties, boolean passed) {
+        this.nodes++;
+        if (this.nodes >= CHECK_INTERVAL) {
+            // handing the nodes over is when the Search checks the budget
+            this.search.addNodes(this.nodes);
+            this.nodes = 0;
+        }
+        if (this.search.isStopped()) {
+            return 0;
+        }
+        if (empties <= SMALL_EMPTIES) {
+            return this.solveSmall(own, opp, alpha, beta, empties, passed);
+        }
+
+        long moves = Position.findMoves(own, opp);
+        if (moves == 0) {
+            if (passed) {
+                return Long.bitCount(own) - Long.bitCount(opp);
+            }
+            return -this.solve(opp, own, -beta, -alpha, empties, true);
+        }
+
+        // a child has one empty square less, so it uses the next row down
+        int[] squares = this.getMoveRow(empties);
+        int count = this.orderMoves(own, opp, moves, empties, squares);
+        int bestVal = -65;
+        for (int k = 0; k < count; k++) {
+            int square = squares[k];
+            long flips = Position.findFlips(own, opp, square);
+            long newOwn = own | flips | (1L << square);
+            long newOpp = opp & ~flips;
+            int value = -this.solve(newOpp, newOwn, -beta, -alpha, empties - 1, false);
+            if (value > bestVal) {
+                bestVal = value;
+                if (bestVal > alpha) {
+                    alpha = bestVal;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestVal;
+    }
+
+    /*
+     * This method solves the last few empty squares. It skips move
+     * generation and just tries every empty square, those in regions with
+     * an odd number of empty squares first.
+     */
+    private int solveSmall(long own, long opp, int alpha, int beta, int empties, boolean passed) {
+        if (empties == 1) {
+            return this.solveLast(own, opp);
+        }
+        long empty = ~(own | opp);
+        long odd = 0;
+        for (long quadrant : QUADRANTS) {
+            if ((Long.bitCount(empty & quadrant) & 1) != 0) {
+                odd |= quadrant;
+            }
+        }
+
+        int bestVal = -65;
+        boolean moved = false;
+        for (int round = 0; round < 2; round++) {
+            long group = empty & ~odd;
+            if (round == 0) {
+                group = empty & odd;
+            }
+            while (group != 0) {
+                int square = Long.numberOfTrailingZeros(group);
+                group &= group - 1;
+                long flips = Position.findFlips(own, opp, square);
+                if (flips == 0) {
+                    continue;
+                }
+                moved = true;
+                int value = -this.solveSmallChild(opp & ~flips, own | flips | (1L << square),
+                        -beta, -alpha, empties - 1);
+                if (value > bestVal) {
+                    bestVal = value;
+                    if (bestVal > alpha) {
+                        alpha = bestVal;
+                        if (alpha >= beta) {
+                            return bestVal;
+                        }
+                    }
+                }
+            }
+        }
+        if (!moved) {
+            if (passed) {
+                return Long.bitCount(own) - Long.bitCount(opp);
+            }
+            return -this.solveSmall(opp, own, -beta, -alpha, empties, true);
+        }
+        return bestVal;
+    }
+
+    /*
+     * This method counts a node and solves a child of solveSmall.
+     */
+    private int solveSmallChild(long own, long opp, int alpha, int beta, int empties) {
+        this.nodes++;
+        return this.solveSmall(own, opp, alpha, beta, empties, false);
+    }
+
+    /*
+     * This method solves a position with one empty square: whoever can
+     * move there does, otherwise the game ends as it is.
+     */
+    private int solveLast(long own, long opp) {
+        int square = Long.numberOfTrailingZeros(~(own | opp));
+        int flipped = Long.bitCount(Position.findFlips(own, opp, square));
+        if (flipped > 0) {
+            return Long.bitCount(own) - Long.bitCount(opp) + 2 * flipped + 1;
+        }
+        flipped = Long.bitCount(Position.findFlips(opp, own, square));
+        if (flipped > 0) {
+            return Long.bitCount(own) - Long.bitCount(opp) - 2 * flipped - 1;
+        }
+        return Long.bitCount(own) - Long.bitCount(opp);
+    }
+
+    /*
+     * This method gets the move stack row for a node with the given
+     * number of empty squares, making it the first time it is needed.
+     */
+    private int[] getMoveRow(int empties) {
+        int[] row = this.moveStack[empties];
+        if (row == null) {
+            row = new int[SearchWorker.MAX_MOVES];
+            this.moveStack[empties] = row;
+        }
+        return row;
+    }
+
+    /*
+     * This method sorts the moves for the solver into squares and returns
+     * how many there are. Far from the end, moves that leave the opponent
+     * the fewest replies go first (corners count as two fewer), since they
+     * cut off fastest. Near the end, moves in regions with an odd number
+     * of empty squares go first. Like SearchWorker.orderMoves, each move is
+     * sorted as one int with its key above 63 - square.
+     */
+    private int orderMoves(long own, long opp, long moves, int empties, int[] squares) {
+        int count = Long.bitCount(moves);
+        long empty = ~(own | opp);
+        for (int k = 0; k < count; k++) {
+            int square = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+            int key;
+            if (empties > FASTEST_FIRST_EMPTIES) {
+                long flips = Position.findFlips(own, opp, square);
+                long replies = Position.findMoves(opp & ~flips, own | flips | (1L << square));
+                key = -Long.bitCount(replies);
+                if ((CORNERS & (1L << square)) != 0) {
+                    key += 2;
+                }
+            } else {
+                key = 0;
+                for (long quadrant : QUADRANTS) {
+                    if ((quadrant & (1L << square)) != 0 && (Long.bitCount(empty & quadrant) & 1) != 0) {
+                        key = 1;
+                    }
+                }
+            }
+            int packed = (key << 6) | (63 - square);
+
+            // insertion sort, highest first
+            int slot = k;
+            while (slot > 0 && squares[slot - 1] < packed) {
+                squares[slot] = squares[slot - 1];
+                slot--;
+            }
+            squares[slot] = packed;
+        }
+        for (int k = 0; k < count; k++) {
+            squares[k] = 63 - (squares[k] & 63);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,251 @@
+package othello;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+/*
+ * This is the Engine class. It is the computer player without the
+ * window: given a Position it plays the book move if there is one and
+ * otherwise searches within its budget. While the opponent thinks it
+ * can ponder: guess the opponent's move and search the position after
+ * it on a thread of its own. If the guess was right, the finished
+ * result (or at least the filled transposition table) makes the real
+ * search quick; if not, pondering is aborted. The ComputerPlayer plays
+ * its moves through an Engine, and tools that run without JavaFX use
+ * one directly.
+ */
+public class Engine {
+    private final EngineSettings settings;
+    private final Random random;
+    private final Search search;
+    private final OpeningBook book;
+    private Consumer<SearchStats> listener;
+    private SearchStats stats;
+    private Thread ponderThread;
+    private Position ponderPosition;
+    private long ponderStart;
+    private volatile Move ponderMove;
+    private volatile SearchStats ponderStats;
+
+    /*
+     * This constructor creates the search the settings describe. Equal
+     * moves are chosen between with the given Random.
+     */
+    public Engine(EngineSettings settings, Random random) {
+        this(settings, random, new Search(settings.getTableMegabytes(), settings.getThreads(), random));
+    }
+
+    /*
+     * This constructor uses a search that already exists, such as one of
+     * GameServer's, set up the way the settings describe and choosing
+     * between equal moves with the given Random. Its table and threads
+     * stay as they are.
+     */
+    public Engine(EngineSettings settings, Random random, Search search) {
+        this.settings = settings;
+        this.random = random;
+        this.search = search;
+        this.search.setRandom(random);
+        this.search.setYoungBrothersWait(settings.isYoungBrothersWait());
+        this.search.setLazySmp(settings.isLazySmp());
+        this.search.setEndgameEmpties(settings.getEndgameEmpties());
+        this.search.setWinLossDrawEmpties(settings.getWinLossDrawEmpties());
+        this.search.setTableMoveFirst(settings.isTableMove());
+        this.search.setKillerMoves(settings.isKillers());
+        this.search.setHistoryHeuristic(settings.isHistory());
+        this.search.setPrincipalVariationSearch(settings.isPvs());
+        this.search.setAspirationWindow(settings.getAspirationWindow());
+        // both are set even when off, since the search may have been set up before
+        PatternEvaluator evaluator = null;
+        if (settings.isPatterns()) {
+            evaluator = PatternEvaluator.getDefault();
+        }
+        this.search.setEvaluator(evaluator);
+        ProbCut probCut = null;
+        if (settings.getProbCutConfidence() > 0) {
+            probCut = ProbCut.getDefault();
+        }
+        this.search.setProbCut(probCut, settings.getProbCutConfidence());
+        if (settings.isBook()) {
+            this.book = OpeningBook.getDefault();
+        } else {
+            this.book = null;
+        }
+    }
+
+    /*
+     * This method finds the move to play in a position: the book move if
+     * there is one, otherwise the best move the search finds.
+     */
+    public Move chooseMove(Position position) {
+        Move pondered = this.stopPondering(position);
+        if (pondered != null) {
+            this.stats = this.ponderStats.forPonderHit();
+            if (this.listener != null) {
+                this.listener.accept(this.stats);
+            }
+            return pondered;
+        }
+
+        Move move = this.getBookMove(position);
+        if (move != null) {
+            this.stats = SearchStats.forBookMove(move);
+            if (this.listener != null) {
+                this.listener.accept(this.stats);
+            }
+            return move;
+        }
+        if (this.settings.getDepth() > 0) {
+            move = this.search.getBestMove(position, this.settings.getDepth());
+        } else {
+            move = this.search.getBestMove(position, this.settings.getTimeMillis(), this.settings.getNodeLimit());
+        }
+        this.stats = this.search.getStats();
+        return move;
+    }
+
+    /*
+     * This method starts pondering on a position where the opponent is
+     * to move. The guess is the table's best move for the position, or
+     * else the move that orders first. The search keeps this engine's
+     * depth or node limit but has no time limit, since it runs until the
+     * opponent moves. Nothing happens if the opponent has to pass.
+     */
+    public void startPondering(Position position) {
+        this.stopPondering(null);
+        long moves = position.getMoves();
+        if (moves == 0) {
+            return;
+        }
+        int guess = TranspositionTable.getBestMove(this.search.getTable().probe(position.getHash()));
+        if (guess == TranspositionTable.NO_MOVE || (moves & (1L << guess)) == 0) {
+            guess = SearchWorker.orderMoves(position, moves, TranspositionTable.NO_MOVE)[0];
+        }
+        Position guessed = new Position(position);
+        guessed.play(guess);
+        if (guessed.isGameOver() || this.getBookMove(guessed) != null) {
+            return;
+        }
+
+        this.ponderPosition = guessed;
+        this.ponderMove = null;
+        this.ponderStart = System.currentTimeMillis();
+        this.search.setListener(null);
+        this.ponderThread = new Thread(() -> {
+            Move move;
+            if (this.settings.getDepth() > 0) {
+                move = this.search.getBestMove(guessed, this.settings.getDepth());
+            } else {
+                move = this.search.getBestMove(guessed, Long.MAX_VALUE / 2, this.settings.getNodeLimit());
+            }
+            // the move is only kept if at least one depth finished
+            SearchStats ponderStats = this.search.getStats();
+            if (ponderStats.getDepth() > 0) {
+                this.ponderStats = ponderStats;
+                this.ponderMove = move;
+            }
+        }, "othello-ponder");
+        this.ponderThread.setDaemon(true);
+        this.ponderThread.start();
+    }
+
+    /*
+     * This method stops pondering and waits for the ponder thread to
+     * finish. If pondering was on the given position (a ponder hit), the
+     * search is first left running until the time it has had since
+     * pondering began reaches the normal budget, and the move of the
+     * deepest depth it finished is returned. Otherwise it returns null.
+     */
+    public Move stopPondering(Position position) {
+        if (this.ponderThread == null) {
+            return null;
+        }
+        boolean hit = position != null && position.getHash() == this.ponderPosition.getHash()
+                && position.getBlack() == this.ponderPosition.getBlack()
+                && position.getWhite() == this.ponderPosition.getWhite();
+        try {
+            if (hit && this.settings.getDepth() > 0) {
+                this.ponderThread.join();
+            } else if (hit) {
+                long remaining = this.ponderStart + this.settings.getTimeMillis() - System.currentTimeMillis();
+                if (remaining > 0) {
+                    this.ponderThread.join(remaining);
+                }
+            }
+            this.search.abort();
+            this.ponderThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.search.clearAbort();
+        this.search.setListener(this.listener);
+        this.ponderThread = null;
+
+        Move move = this.ponderMove;
+        this.ponderMove = null;
+        if (!hit) {
+            return null;
+        }
+        return move;
+    }
+
+    /*
+     * This method looks the position up in the opening book. It returns
+     * null if there is no book or the position is not in it.
+     */
+    public Move getBookMove(Position position) {
+        if (this.book == null) {
+            return null;
+        }
+        return this.book.getMove(position, this.random);
+    }
+
+    /*
+     * This setter method sets who is told the stats of each move, and of
+     * each depth while the search runs. It is called on the thread that
+     * chooses the move.
+     */
+    public void setListener(Consumer<SearchStats> listener) {
+        this.listener = listener;
+        if (this.ponderThread == null) {
+            this.search.setListener(listener);
+        }
+    }
+
+    /*
+     * This method stops the engine for good, cancelling a search that is
+     * still running and releasing its threads.
+     */
+    public void shutdown() {
+        this.search.shutdown();
+    }
+
+    /*
+     * This getter method gets the stats of the last move, or null before
+     * the first one.
+     */
+    public SearchStats getStats() {
+        return this.stats;
+    }
+
+    /*
+     * This getter method gets the Random that equal moves are chosen with.
+     */
+    public Random getRandom() {
+        return this.random;
+    }
+
+    /*
+     * This getter method gets the search.
+     */
+    public Search getSearch() {
+        return this.search;
+    }
+
+    /*
+     * This getter method gets the settings.
+     */
+    public EngineSettings getSettings() {
+        return this.settings;
+    }
+}
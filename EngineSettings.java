@@ -0,0 +1,261 @@
+package othello;
+
+/*
+ * This class holds the settings of an Engine: its search budget, how
+ * many threads it uses and which of its features are turned on. Settings
+ * can be written as text like "time=100,threads=1,book=false" so tools
+ * that run without the JavaFX window can take them on the command line.
+ */
+public class EngineSettings {
+    private long timeMillis;
+    private long nodeLimit;
+    private int depth;
+    private int threads;
+    private int tableMegabytes;
+    private boolean youngBrothersWait;
+    private boolean lazySmp;
+    private int endgameEmpties;
+    private int winLossDrawEmpties;
+    private boolean tableMove;
+    private boolean killers;
+    private boolean history;
+    private boolean pvs;
+    private int aspirationWindow;
+    private double probCutConfidence;
+    private boolean patterns;
+    private boolean book;
+
+    /*
+     * This constructor sets the settings the computer levels use, with
+     * the time and node budget of the strongest level.
+     */
+    public EngineSettings() {
+        this.timeMillis = Constants.LEVEL_TIME_MILLIS[Constants.LEVEL_TIME_MILLIS.length - 1];
+        this.nodeLimit = Constants.LEVEL_NODE_LIMITS[Constants.LEVEL_NODE_LIMITS.length - 1];
+        this.depth = 0;
+        this.threads = Constants.SEARCH_THREADS;
+        this.tableMegabytes = Constants.TABLE_MEGABYTES;
+        this.youngBrothersWait = true;
+        this.lazySmp = Constants.LAZY_SMP;
+        this.endgameEmpties = Constants.ENDGAME_EMPTIES;
+        this.winLossDrawEmpties = Constants.WLD_EMPTIES;
+        this.tableMove = true;
+        this.killers = true;
+        this.history = false;
+        this.pvs = true;
+        this.aspirationWindow = Constants.ASPIRATION_WINDOW;
+        this.probCutConfidence = Constants.PROBCUT_CONFIDENCE;
+        this.patterns = true;
+        this.book = true;
+    }
+
+    /*
+     * This method changes the settings named in text like
+     * "time=100,nodes=50000,depth=6,threads=1,table=16,ybw=true,
+     * lazy=false,endgame=14,wld=16,tablemove=true,killers=true,
+     * history=false,pvs=true,aspiration=25,probcut=1.5,patterns=true,
+     * book=false". A depth above 0 searches to that depth with no budget,
+     * and an aspiration window or ProbCut confidence of 0 turns it off, as
+     * does a wld no larger than endgame for the win/loss/draw solve. It throws an
+     * IllegalArgumentException if a setting is not known.
+     */
+    public EngineSettings apply(String text) {
+        for (String setting : text.split(",")) {
+            if (setting.isBlank()) {
+                continue;
+            }
+            String[] parts = setting.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("setting without a value: " + setting);
+            }
+            String value = parts[1].trim();
+            switch (parts[0].trim()) {
+                case "time" -> this.timeMillis = Long.parseLong(value);
+                case "nodes" -> this.nodeLimit = Long.parseLong(value);
+                case "depth" -> this.depth = Integer.parseInt(value);
+                case "threads" -> this.threads = Integer.parseInt(value);
+                case "table" -> this.tableMegabytes = Integer.parseInt(value);
+                case "ybw" -> this.youngBrothersWait = Boolean.parseBoolean(value);
+                case "lazy" -> this.lazySmp = Boolean.parseBoolean(value);
+                case "endgame" -> this.endgameEmpties = Integer.parseInt(value);
+                case "wld" -> this.winLossDrawEmpties = Integer.parseInt(value);
+                case "tablemove" -> this.tableMove = Boolean.parseBoolean(value);
+                case "killers" -> this.killers = Boolean.parseBoolean(value);
+                case "history" -> this.history = Boolean.parseBoolean(value);
+                case "pvs" -> this.pvs = Boolean.parseBoolean(value);
+                case "aspiration" -> this.aspirationWindow = Integer.parseInt(value);
+                case "probcut" -> this.probCutConfidence = Double.parseDouble(value);
+                case "patterns" -> this.patterns = Boolean.parseBoolean(value);
+                case "book" -> this.book = Boolean.parseBoolean(value);
+                default -> throw new IllegalArgumentException("unknown setting: " + parts[0]);
+            }
+        }
+        return this;
+    }
+
+    /*
+     * This method writes the settings in the form apply reads.
+     */
+    @Override
+    public String toString() {
+        return "time=" + this.timeMillis + ",nodes=" + this.nodeLimit + ",depth=" + this.depth
+                + ",threads=" + this.threads + ",table=" + this.tableMegabytes
+                + ",ybw=" + this.youngBrothersWait + ",lazy=" + this.lazySmp
+                + ",endgame=" + this.endgameEmpties + ",wld=" + this.winLossDrawEmpties
+                + ",tablemove=" + this.tableMove
+                + ",killers=" + this.killers
+                + ",history=" + this.history + ",pvs=" + this.pvs
+                + ",aspiration=" + this.aspirationWindow + ",probcut=" + this.probCutConfidence
+                + ",patterns=" + this.patterns + ",book=" + this.book;
+    }
+
+    /*
+     * This setter method sets the time budget of each move.
+     */
+    public void setTimeMillis(long timeMillis) {
+        this.timeMillis = timeMillis;
+    }
+
+    /*
+     * This setter method sets the node budget of each move.
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    /*
+     * This setter method sets the fixed search depth, or 0 to use the budget.
+     */
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    /*
+     * This setter method sets the number of search threads.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /*
+     * This getter method gets the time budget of each move.
+     */
+    public long getTimeMillis() {
+        return this.timeMillis;
+    }
+
+    /*
+     * This getter method gets the node budget of each move.
+     */
+    public long getNodeLimit() {
+        return this.nodeLimit;
+    }
+
+    /*
+     * This getter method gets the fixed search depth, or 0 to use the budget.
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /*
+     * This getter method gets the number of search threads.
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /*
+     * This getter method gets the size of the transposition table.
+     */
+    public int getTableMegabytes() {
+        return this.tableMegabytes;
+    }
+
+    /*
+     * This getter method checks whether Young Brothers Wait is on.
+     */
+    public boolean isYoungBrothersWait() {
+        return this.youngBrothersWait;
+    }
+
+    /*
+     * This getter method checks whether Lazy SMP is on.
+     */
+    public boolean isLazySmp() {
+        return this.lazySmp;
+    }
+
+    /*
+     * This getter method gets the empty squares at which the endgame solver starts.
+     */
+    public int getEndgameEmpties() {
+        return this.endgameEmpties;
+    }
+
+    /*
+     * This getter method gets the empty squares at which the endgame
+     * solver starts looking for a win or a draw.
+     */
+    public int getWinLossDrawEmpties() {
+        return this.winLossDrawEmpties;
+    }
+
+    /*
+     * This getter method checks whether the table's best move is searched first.
+     */
+    public boolean isTableMove() {
+        return this.tableMove;
+    }
+
+    /*
+     * This getter method checks whether killer moves are used to order moves.
+     */
+    public boolean isKillers() {
+        return this.killers;
+    }
+
+    /*
+     * This getter method checks whether the history heuristic is used to order moves.
+     */
+    public boolean isHistory() {
+        return this.history;
+    }
+
+    /*
+     * This getter method checks whether Principal Variation Search is used.
+     */
+    public boolean isPvs() {
+        return this.pvs;
+    }
+
+    /*
+     * This getter method gets half the width of the aspiration window, or 0 for none.
+     */
+    public int getAspirationWindow() {
+        return this.aspirationWindow;
+    }
+
+    /*
+     * This getter method gets how many standard deviations out a shallow
+     * value must be for Multi-ProbCut to cut, or 0 for a full width search.
+     */
+    public double getProbCutConfidence() {
+        return this.probCutConfidence;
+    }
+
+    /*
+     * This getter method checks whether leaves are valued by the pattern
+     * weights, when there are any.
+     */
+    public boolean isPatterns() {
+        return this.patterns;
+    }
+
+    /*
+     * This getter method checks whether the opening book is used.
+     */
+    public boolean isBook() {
+        return this.book;
+    }
+}
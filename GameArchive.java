@@ -0,0 +1,171 @@
+package othello;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * This class converts game archives to the compact game record format
+ * and goes through them. Text files have one game a line, either just the
+ * moves ("f5d6c3...") or "black;white;moves". WTHOR files can be given
+ * with their players file. Every file is streamed a game at a time, so
+ * archives of millions of games take no more memory than one. It runs
+ * without JavaFX:
+ *
+ *     java othello.GameArchive import-text <games.txt> <games.ogr>
+ *     java othello.GameArchive import-wthor <games.wtb> <games.ogr> [players.jou]
+ *     java othello.GameArchive stats <games.ogr>
+ *     java othello.GameArchive export-text <games.ogr> <games.txt>
+ */
+public class GameArchive {
+
+    /*
+     * Here is the mainline!
+     */
+    public static void main(String[] argv) throws IOException {
+        if (argv.length >= 3 && argv[0].equals("import-text")) {
+            importText(Path.of(argv[1]), Path.of(argv[2]));
+        } else if (argv.length >= 3 && argv[0].equals("import-wthor")) {
+            Path players = null;
+            if (argv.length > 3) {
+                players = Path.of(argv[3]);
+            }
+            importWthor(Path.of(argv[1]), Path.of(argv[2]), players);
+        } else if (argv.length >= 2 && argv[0].equals("stats")) {
+            printStats(Path.of(argv[1]));
+        } else if (argv.length >= 3 && argv[0].equals("export-text")) {
+            exportText(Path.of(argv[1]), Path.of(argv[2]));
+        } else {
+            System.out.println("usage: GameArchive import-text <games.txt> <games.ogr>");
+            System.out.println("       GameArchive import-wthor <games.wtb> <games.ogr> [players.jou]");
+            System.out.println("       GameArchive stats <games.ogr>");
+            System.out.println("       GameArchive export-text <games.ogr> <games.txt>");
+        }
+    }
+
+    /*
+     * This method converts a text file of games. Lines that are not a
+     * legal game are skipped and counted.
+     */
+    public static void importText(Path in, Path out) throws IOException {
+        long start = System.currentTimeMillis();
+        int games = 0;
+        int skipped = 0;
+        try (BufferedReader reader = Files.newBufferedReader(in);
+                GameRecordWriter writer = new GameRecordWriter(out)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String[] fields = line.split(";", -1);
+                GameRecord record;
+                if (fields.length == 3) {
+                    record = GameRecord.fromText(fields[0].trim(), fields[1].trim(), fields[2]);
+                } else {
+                    record = GameRecord.fromText("", "", line);
+                }
+                if (record == null) {
+                    skipped++;
+                } else {
+                    writer.write(record);
+                    games++;
+                }
+            }
+        }
+        printImport(games, skipped, in, out, start);
+    }
+
+    /*
+     * This method converts a WTHOR file. Games with moves that are not
+     * legal are skipped and counted.
+     */
+    public static void importWthor(Path in, Path out, Path players) throws IOException {
+        long start = System.currentTimeMillis();
+        int games = 0;
+        int skipped;
+        try (WthorReader reader = new WthorReader(in, players);
+                GameRecordWriter writer = new GameRecordWriter(out)) {
+            GameRecord record;
+            while ((record = reader.next()) != null) {
+                writer.write(record);
+                games++;
+            }
+            skipped = reader.getSkipped();
+        }
+        printImport(games, skipped, in, out, start);
+    }
+
+    /*
+     * This method writes an archive back out as text, one
+     * "black;white;moves" line a game.
+     */
+    public static void exportText(Path in, Path out) throws IOException {
+        try (GameRecordReader reader = new GameRecordReader(in);
+                BufferedWriter writer = Files.newBufferedWriter(out)) {
+            GameRecord record;
+            while ((record = reader.next()) != null) {
+                writer.write(record.getBlackPlayer() + ";" + record.getWhitePlayer() + ";" + record.toText());
+                writer.newLine();
+            }
+        }
+    }
+
+    /*
+     * This method replays every game of an archive and prints how the
+     * games ended, how long they were and how fast they were read.
+     */
+    public static void printStats(Path path) throws IOException {
+        long start = System.nanoTime();
+        long games = 0;
+        long invalid = 0;
+        long blackWins = 0;
+        long draws = 0;
+        long whiteWins = 0;
+        long moves = 0;
+        long bytes;
+        try (GameRecordReader reader = new GameRecordReader(path)) {
+            GameRecord record;
+            while ((record = reader.next()) != null) {
+                games++;
+                Position position = record.replay();
+                if (position == null) {
+                    invalid++;
+                    continue;
+                }
+                moves += record.getMoves().length;
+                if (record.getBlackScore() > record.getWhiteScore()) {
+                    blackWins++;
+                } else if (record.getBlackScore() < record.getWhiteScore()) {
+                    whiteWins++;
+                } else {
+                    draws++;
+                }
+            }
+            bytes = reader.getBytesRead();
+        }
+        double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+
+        long valid = games - invalid;
+        System.out.println(games + " games, " + invalid + " not legal");
+        if (valid > 0) {
+            System.out.printf("black wins %.1f%%, draws %.1f%%, white wins %.1f%%, %.1f moves a game%n",
+                    100.0 * blackWins / valid, 100.0 * draws / valid, 100.0 * whiteWins / valid,
+                    (double) moves / valid);
+        }
+        System.out.printf("%d bytes (%.1f a game) in %.2f s: %.0f games/s, %.1f MB/s%n", bytes,
+                (double) bytes / Math.max(games, 1), seconds, games / seconds, bytes / seconds / 1e6);
+    }
+
+    /*
+     * This method prints what an import did.
+     */
+    private static void printImport(int games, int skipped, Path in, Path out, long start) throws IOException {
+        System.out.println(games + " games written to " + out + " (" + Files.size(out) + " bytes, "
+                + Files.size(in) + " read)" + (skipped > 0 ? ", " + skipped + " skipped" : "") + " in "
+                + (System.currentTimeMillis() - start) + " ms");
+    }
+}
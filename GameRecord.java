@@ -0,0 +1,131 @@
+package othello;
+
+/*
+ * This is the GameRecord class. It holds one finished game: the names of
+ * the players, the final score each one was given and the moves, as
+ * squares in the order they were played. Passes are not written down,
+ * since a player who cannot move always passes. Games are replayed on a
+ * Position, so no JavaFX is needed. GameRecordWriter and GameRecordReader
+ * store games in the compact binary format, and games can also be read
+ * from text like "f5d6c3..." or from WTHOR files (WthorReader).
+ */
+public class GameRecord {
+    public static final int MAX_MOVES = 60;
+    public static final int MAX_NAME_BYTES = 255;
+
+    private final String blackPlayer;
+    private final String whitePlayer;
+    private final int blackScore;
+    private final int whiteScore;
+    private final int[] moves;
+
+    /*
+     * This constructor sets the instance variables equal to what was passed through.
+     */
+    public GameRecord(String blackPlayer, String whitePlayer, int blackScore, int whiteScore, int[] moves) {
+        if (moves.length > MAX_MOVES) {
+            throw new IllegalArgumentException("a game has at most " + MAX_MOVES + " moves");
+        }
+        this.blackPlayer = blackPlayer;
+        this.whitePlayer = whitePlayer;
+        this.blackScore = blackScore;
+        this.whiteScore = whiteScore;
+        this.moves = moves;
+    }
+
+    /*
+     * This method makes a record from moves written like "f5d6c3",
+     * scoring it by replaying it. It returns null if the text is not a
+     * list of squares or a move is not legal.
+     */
+    public static GameRecord fromText(String blackPlayer, String whitePlayer, String text) {
+        text = text.replaceAll("\\s", "");
+        if (text.length() % 2 != 0 || text.length() / 2 > MAX_MOVES) {
+            return null;
+        }
+        int[] moves = new int[text.length() / 2];
+        for (int k = 0; k < moves.length; k++) {
+            moves[k] = Position.parseSquare(text.substring(2 * k, 2 * k + 2));
+            if (moves[k] < 0) {
+                return null;
+            }
+        }
+        Position position = replay(moves);
+        if (position == null) {
+            return null;
+        }
+        return new GameRecord(blackPlayer, whitePlayer, position.getBlackCount(), position.getWhiteCount(), moves);
+    }
+
+    /*
+     * This method plays the moves from the start, passing for a player
+     * who cannot move. It returns the final position, or null if a move
+     * is not legal.
+     */
+    public static Position replay(int[] moves) {
+        Position position = new Position();
+        for (int square : moves) {
+            if (position.getMoves() == 0) {
+                position.pass();
+            }
+            if (position.play(square) == 0) {
+                return null;
+            }
+        }
+        return position;
+    }
+
+    /*
+     * This method replays the game. It returns the final position, or
+     * null if a move is not legal.
+     */
+    public Position replay() {
+        return replay(this.moves);
+    }
+
+    /*
+     * This method writes the moves like "f5d6c3".
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder();
+        for (int square : this.moves) {
+            text.append(Position.getSquareName(square));
+        }
+        return text.toString();
+    }
+
+    /*
+     * This getter method gets the name of the black player.
+     */
+    public String getBlackPlayer() {
+        return this.blackPlayer;
+    }
+
+    /*
+     * This getter method gets the name of the white player.
+     */
+    public String getWhitePlayer() {
+        return this.whitePlayer;
+    }
+
+    /*
+     * This getter method gets the final score of black.
+     */
+    public int getBlackScore() {
+        return this.blackScore;
+    }
+
+    /*
+     * This getter method gets the final score of white.
+     */
+    public int getWhiteScore() {
+        return this.whiteScore;
+    }
+
+    /*
+     * This getter method gets the moves as squares.
+     */
+    public int[] getMoves() {
+        return this.moves;
+    }
+}
@@ -0,0 +1,127 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * This class reads the games of a file GameRecordWriter wrote, one at a
+ * time. It reads the file through one fixed buffer, so an archive of any
+ * size is read in the same small amount of memory.
+ */
+public class GameRecordReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private boolean endOfFile;
+    private long bytesRead;
+
+    /*
+     * This constructor opens the file and checks its header.
+     */
+    public GameRecordReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(GameRecordWriter.BUFFER_BYTES);
+        this.buffer.flip();
+        if (!this.fill(8) || this.buffer.getInt() != GameRecordWriter.MAGIC
+                || this.buffer.getInt() != GameRecordWriter.VERSION) {
+            this.channel.close();
+            throw new IOException(path + " is not a game record file");
+        }
+    }
+
+    /*
+     * This method reads the next game. It returns null at the end of the
+     * file and throws an IOException if the file ends in the middle of a
+     * game.
+     */
+    public GameRecord next() throws IOException {
+        if (!this.fill(3)) {
+            if (this.buffer.hasRemaining()) {
+                throw new IOException("the file ends in the middle of a game");
+            }
+            return null;
+        }
+        int moveCount = this.buffer.get() & 0xff;
+        int blackScore = this.buffer.get() & 0xff;
+        int whiteScore = this.buffer.get() & 0xff;
+        if (moveCount > GameRecord.MAX_MOVES) {
+            throw new IOException("a game with " + moveCount + " moves");
+        }
+        String blackPlayer = this.readName();
+        String whitePlayer = this.readName();
+
+        int[] moves = new int[moveCount];
+        this.require(GameRecordWriter.getPackedBytes(moveCount));
+        int bits = 0;
+        int bitCount = 0;
+        for (int k = 0; k < moveCount; k++) {
+            if (bitCount < 6) {
+                bits = (bits << 8) | (this.buffer.get() & 0xff);
+                bitCount += 8;
+            }
+            bitCount -= 6;
+            moves[k] = (bits >>> bitCount) & 0x3f;
+        }
+        return new GameRecord(blackPlayer, whitePlayer, blackScore, whiteScore, moves);
+    }
+
+    /*
+     * This method reads a name: its length, then its UTF-8 bytes.
+     */
+    private String readName() throws IOException {
+        this.require(1);
+        int length = this.buffer.get() & 0xff;
+        this.require(length);
+        byte[] bytes = new byte[length];
+        this.buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * This method makes sure the buffer holds the next bytes of a game.
+     */
+    private void require(int bytes) throws IOException {
+        if (!this.fill(bytes)) {
+            throw new IOException("the file ends in the middle of a game");
+        }
+    }
+
+    /*
+     * This method reads more of the file until the buffer holds at least
+     * the given number of bytes. It returns false if the file ends first.
+     */
+    private boolean fill(int bytes) throws IOException {
+        if (this.buffer.remaining() >= bytes) {
+            return true;
+        }
+        this.buffer.compact();
+        while (this.buffer.position() < bytes && !this.endOfFile) {
+            int read = this.channel.read(this.buffer);
+            if (read < 0) {
+                this.endOfFile = true;
+            } else {
+                this.bytesRead += read;
+            }
+        }
+        this.buffer.flip();
+        return this.buffer.remaining() >= bytes;
+    }
+
+    /*
+     * This getter method gets how many bytes of the file have been read.
+     */
+    public long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    /*
+     * This method closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,112 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * This class writes games in the compact binary game record format.
+ * The file starts with MAGIC and VERSION (ints, big-endian). Each game is
+ * then the number of moves, black's score and white's score (a byte
+ * each), the two player names (a length byte, then UTF-8), and the moves
+ * packed six bits each, most significant bit first, padded to a byte. A
+ * whole game takes at most 50 bytes plus the names.
+ */
+public class GameRecordWriter implements AutoCloseable {
+    public static final int MAGIC = 0x4f475231;
+    public static final int VERSION = 1;
+    public static final int BUFFER_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    /*
+     * This constructor creates the file, replacing one that is there,
+     * and writes the header.
+     */
+    public GameRecordWriter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        this.buffer.putInt(MAGIC);
+        this.buffer.putInt(VERSION);
+    }
+
+    /*
+     * This method adds a game to the file.
+     */
+    public void write(GameRecord record) throws IOException {
+        byte[] black = getNameBytes(record.getBlackPlayer());
+        byte[] white = getNameBytes(record.getWhitePlayer());
+        int[] moves = record.getMoves();
+        int size = 5 + black.length + white.length + getPackedBytes(moves.length);
+        if (this.buffer.remaining() < size) {
+            this.flush();
+        }
+        this.buffer.put((byte) moves.length);
+        this.buffer.put((byte) record.getBlackScore());
+        this.buffer.put((byte) record.getWhiteScore());
+        this.buffer.put((byte) black.length);
+        this.buffer.put(black);
+        this.buffer.put((byte) white.length);
+        this.buffer.put(white);
+
+        // six bits a move, gathered in an int and written a byte at a time
+        int bits = 0;
+        int bitCount = 0;
+        for (int square : moves) {
+            bits = (bits << 6) | square;
+            bitCount += 6;
+            while (bitCount >= 8) {
+                bitCount -= 8;
+                this.buffer.put((byte) (bits >>> bitCount));
+            }
+        }
+        if (bitCount > 0) {
+            this.buffer.put((byte) (bits << (8 - bitCount)));
+        }
+    }
+
+    /*
+     * This method gets how many bytes a number of packed moves takes.
+     */
+    public static int getPackedBytes(int moveCount) {
+        return (moveCount * 6 + 7) / 8;
+    }
+
+    /*
+     * This method turns a name into UTF-8, cut to MAX_NAME_BYTES.
+     */
+    private static byte[] getNameBytes(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= GameRecord.MAX_NAME_BYTES) {
+            return bytes;
+        }
+        byte[] cut = new byte[GameRecord.MAX_NAME_BYTES];
+        System.arraycopy(bytes, 0, cut, 0, cut.length);
+        return cut;
+    }
+
+    /*
+     * This method writes out what is in the buffer.
+     */
+    private void flush() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    /*
+     * This method writes out the rest and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        this.flush();
+        this.channel.close();
+    }
+}
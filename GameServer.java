@@ -0,0 +1,220 @@
+package othello;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * This class hosts many games at once from one JVM, without the window.
+ * It listens on a local TCP port and runs every connection as a
+ * GameSession on a virtual thread of its own, so thousands of idle
+ * sessions cost little more than their sockets. The engines of all
+ * sessions search on one SearchScheduler, so they never take more than
+ * its threads, and each session gets its turn. A session only keeps its
+ * settings: each move borrows one of the server's searches, one per
+ * scheduler thread, each with one thread and a small table, so memory
+ * grows with the threads and not with the sessions:
+ *
+ *     java othello.GameServer [port] [threads] [settings]
+ *
+ * The settings are the defaults of every game, written as EngineSettings
+ * reads them; a session can change them for its own games, except the
+ * number of threads and the table, which the server's searches fix.
+ * See GameSession for the protocol.
+ */
+public class GameServer {
+    public static final int DEFAULT_PORT = 7878;
+    private static final int DEFAULT_TABLE_MEGABYTES = 1;
+    private static final int BACKLOG = 1024;
+    private static final long REPORT_MILLIS = 30000;
+
+    private final SearchScheduler scheduler;
+    private final String defaultSettings;
+    // the searches no move is using, the session each one searched for last,
+    // and the search each session's move is running on
+    private final ArrayDeque<Search> searches = new ArrayDeque<>();
+    private final HashMap<Search, GameSession> lastOwners = new HashMap<>();
+    private final HashMap<GameSession, Search> running = new HashMap<>();
+    private final AtomicInteger sessions = new AtomicInteger();
+    private final AtomicInteger sessionCount = new AtomicInteger();
+
+    /*
+     * This constructor checks the default settings and creates the
+     * scheduler and a search for each of its threads.
+     */
+    public GameServer(int threads, String defaultSettings) {
+        this.defaultSettings = "table=" + DEFAULT_TABLE_MEGABYTES + "," + defaultSettings;
+        int tableMegabytes = new EngineSettings().apply(this.defaultSettings).getTableMegabytes();
+        this.scheduler = new SearchScheduler(threads);
+        for (int k = 0; k < threads; k++) {
+            this.searches.add(new Search(tableMegabytes, 1, new Random()));
+        }
+    }
+
+    /*
+     * Here is the mainline!
+     */
+    public static void main(String[] argv) throws IOException {
+        int port = DEFAULT_PORT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String settings = "";
+        if (argv.length > 0) {
+            port = Integer.parseInt(argv[0]);
+        }
+        if (argv.length > 1) {
+            threads = Integer.parseInt(argv[1]);
+        }
+        if (argv.length > 2) {
+            settings = argv[2];
+        }
+        new GameServer(threads, settings).serve(port);
+    }
+
+    /*
+     * This method accepts connections on the loopback address until the
+     * process is stopped, printing the server's report every
+     * REPORT_MILLIS while there are sessions.
+     */
+    public void serve(int port) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+                ExecutorService sessionThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            System.out.println("listening on " + serverSocket.getLocalSocketAddress() + " with "
+                    + this.scheduler.getThreads() + " search threads, games " + this.createSettings(""));
+            Thread.ofVirtual().start(this::report);
+            while (true) {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                this.sessions.incrementAndGet();
+                this.sessionCount.incrementAndGet();
+                sessionThreads.execute(new GameSession(this, socket));
+            }
+        } finally {
+            this.scheduler.shutdown();
+        }
+    }
+
+    /*
+     * This method prints the report now and then while there are sessions.
+     */
+    private void report() {
+        try {
+            while (true) {
+                Thread.sleep(REPORT_MILLIS);
+                if (this.sessions.get() > 0) {
+                    System.out.println(this.getReport());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /*
+     * This method reads the settings of a game over the defaults. The
+     * engine always searches with one thread, since the scheduler's
+     * threads are what bound the processor use.
+     */
+    public EngineSettings createSettings(String text) {
+        EngineSettings settings = new EngineSettings().apply(this.defaultSettings).apply(text);
+        settings.setThreads(1);
+        return settings;
+    }
+
+    /*
+     * This method finds a move for a session with one of the server's
+     * searches, set up the way its settings describe. It is called on a
+     * scheduler thread.
+     */
+    public Move chooseMove(GameSession session, EngineSettings settings, Random random, Position position) {
+        Search search = this.borrowSearch(session);
+        try {
+            return new Engine(settings, random, search).chooseMove(position);
+        } finally {
+            this.returnSearch(session, search);
+        }
+    }
+
+    /*
+     * This method takes a search for a session's move, the one it used
+     * last if that is free. There is one for each scheduler thread and
+     * only those threads search, so one is always free. The table is
+     * emptied if another session used it last, so no game sees the
+     * values of another game's settings. A session that has closed gets
+     * an aborted search, which returns straight away.
+     */
+    private synchronized Search borrowSearch(GameSession session) {
+        Search search = null;
+        for (Search free : this.searches) {
+            if (this.lastOwners.get(free) == session) {
+                search = free;
+                break;
+            }
+        }
+        if (search == null) {
+            search = this.searches.peek();
+        }
+        this.searches.remove(search);
+        if (this.lastOwners.put(search, session) != session) {
+            search.getTable().clear();
+        }
+        this.running.put(session, search);
+        if (session.isClosed()) {
+            search.abort();
+        }
+        return search;
+    }
+
+    /*
+     * This method gives a search back once the move is found, clearing
+     * an abort that was only meant for that session.
+     */
+    private synchronized void returnSearch(GameSession session, Search search) {
+        this.running.remove(session);
+        search.clearAbort();
+        this.searches.add(search);
+    }
+
+    /*
+     * This method aborts the search a closed session's move is running
+     * on, if there is one, so its scheduler thread is free again.
+     */
+    public synchronized void stopSearch(GameSession session) {
+        Search search = this.running.get(session);
+        if (search != null) {
+            search.abort();
+        }
+    }
+
+    /*
+     * This method describes the sessions, the searches and how long
+     * moves took from being asked for to being found, waiting included.
+     */
+    public String getReport() {
+        LatencyHistogram latencies = this.scheduler.getLatencies();
+        return String.format("sessions=%d total=%d active=%d queued=%d moves=%d p50=%.1fms p99=%.1fms",
+                this.sessions.get(), this.sessionCount.get(), this.scheduler.getActive(),
+                this.scheduler.getQueued(), latencies.getCount(), latencies.getPercentile(0.5) / 1000.0,
+                latencies.getPercentile(0.99) / 1000.0);
+    }
+
+    /*
+     * This method counts a session as ended.
+     */
+    public void removeSession() {
+        this.sessions.decrementAndGet();
+    }
+
+    /*
+     * This getter method gets the scheduler the sessions search on.
+     */
+    public SearchScheduler getScheduler() {
+        return this.scheduler;
+    }
+}
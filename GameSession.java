@@ -0,0 +1,258 @@
+package othello;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/*
+ * This class runs one connection to the GameServer. It reads commands a
+ * line at a time and answers each with one line starting with "ok" or
+ * "error". Squares are written the standard way ("f5"), passes are made
+ * for a player with no move, and "end <black> <white>" is added to an
+ * answer once the game is over:
+ *
+ *     new [black|white|none] [settings]   a new game, the human playing the
+ *                                         given color; the engine answers
+ *                                         with its moves if it starts
+ *     move <square>                       the human's move, answered with
+ *                                         the engine's moves
+ *     go                                  the engine moves for the side to move
+ *     auto                                the engine plays the game to the end
+ *     board                               the position, as Position.parse reads it
+ *     stats                               the server's sessions and move latency
+ *     quit                                closes the connection
+ *
+ * Settings are written as EngineSettings reads them. Every search goes
+ * through the server's SearchScheduler, on one of the server's searches,
+ * so the session's thread only waits while the engine thinks. A virtual
+ * thread of its own reads the commands, so a client that goes away in
+ * the middle of a move stops the search at once.
+ */
+public class GameSession implements Runnable {
+    // the end of the commands; the reader never queues an empty line
+    private static final String END = "";
+
+    private final GameServer server;
+    private final Socket socket;
+    private final LinkedBlockingQueue<String> commands = new LinkedBlockingQueue<>();
+    private volatile boolean closed;
+    private Position position;
+    private EngineSettings settings;
+    private final Random random = new Random();
+    private int humanColor;
+
+    /*
+     * This constructor sets the instance variables equal to what was passed through.
+     */
+    public GameSession(GameServer server, Socket socket) {
+        this.server = server;
+        this.socket = socket;
+    }
+
+    /*
+     * This method answers commands until the client quits or the
+     * connection is closed.
+     */
+    @Override
+    public void run() {
+        try (Socket socket = this.socket;
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            // closing the socket ends the reader; closing the reader itself would wait for it
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(),
+                    StandardCharsets.UTF_8));
+            Thread.ofVirtual().start(() -> this.readCommands(in));
+            String line;
+            while (!(line = this.commands.take()).equals(END)) {
+                if (line.equals("quit")) {
+                    out.println("ok");
+                    break;
+                }
+                String answer;
+                try {
+                    answer = this.handle(line);
+                } catch (IllegalArgumentException e) {
+                    answer = "error " + e.getMessage();
+                }
+                out.println(answer);
+            }
+        } catch (IOException e) {
+            // the client went away; there is nobody to tell
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.closed = true;
+            this.server.getScheduler().cancel(this);
+            this.server.stopSearch(this);
+            this.server.removeSession();
+        }
+    }
+
+    /*
+     * This method reads the commands into the queue until the connection
+     * is closed. The session is then closed too, and a move it is
+     * searching is stopped; its searches still waiting run and return
+     * straight away, since the session's thread may be waiting for one.
+     */
+    private void readCommands(BufferedReader in) {
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    this.commands.add(line);
+                }
+            }
+        } catch (IOException e) {
+            // the connection was closed; there is nobody to tell
+        } finally {
+            this.closed = true;
+            this.commands.add(END);
+            this.server.stopSearch(this);
+        }
+    }
+
+    /*
+     * This method carries out one command and returns the answer.
+     */
+    private String handle(String line) throws InterruptedException {
+        String[] words = line.split("\\s+");
+        switch (words[0]) {
+            case "new" -> {
+                return this.newGame(words);
+            }
+            case "move" -> {
+                this.checkGame();
+                if (words.length < 2) {
+                    throw new IllegalArgumentException("move needs a square");
+                }
+                if (this.position.getSideToMove() != this.humanColor) {
+                    throw new IllegalArgumentException("it is not your move");
+                }
+                int square = Position.parseSquare(words[1]);
+                if (square < 0 || (this.position.getMoves() & (1L << square)) == 0) {
+                    throw new IllegalArgumentException("illegal move " + words[1]);
+                }
+                this.position.play(square);
+                return "ok" + this.playEngine(false);
+            }
+            case "go" -> {
+                this.checkGame();
+                if (this.position.isGameOver()) {
+                    throw new IllegalArgumentException("the game is over");
+                }
+                return "ok" + this.playMove();
+            }
+            case "auto" -> {
+                this.checkGame();
+                return "ok" + this.playEngine(true);
+            }
+            case "board" -> {
+                this.checkGame();
+                return "ok " + this.position;
+            }
+            case "stats" -> {
+                return "ok " + this.server.getReport();
+            }
+            default -> throw new IllegalArgumentException("unknown command " + words[0]);
+        }
+    }
+
+    /*
+     * This method starts a new game, reading the human's color and the
+     * engine's settings.
+     */
+    private String newGame(String[] words) throws InterruptedException {
+        int color = Constants.BLACK;
+        int first = 1;
+        if (words.length > 1 && !words[1].contains("=")) {
+            color = switch (words[1]) {
+                case "black" -> Constants.BLACK;
+                case "white" -> Constants.WHITE;
+                case "none" -> Constants.EMPTY;
+                default -> throw new IllegalArgumentException("unknown color " + words[1]);
+            };
+            first = 2;
+        }
+        StringBuilder text = new StringBuilder();
+        for (int k = first; k < words.length; k++) {
+            text.append(words[k]).append(',');
+        }
+        this.settings = this.server.createSettings(text.toString());
+        this.position = new Position();
+        this.humanColor = color;
+        if (color == Constants.EMPTY) {
+            return "ok";
+        }
+        return "ok" + this.playEngine(false);
+    }
+
+    /*
+     * This method lets the engine move until the human is to move or the
+     * game is over, or until the game is over if all is true. It returns
+     * the moves played, passes included.
+     */
+    private String playEngine(boolean all) throws InterruptedException {
+        StringBuilder moves = new StringBuilder();
+        while (!this.position.isGameOver() && !this.closed) {
+            if (this.position.getMoves() == 0) {
+                this.position.pass();
+                moves.append(" pass");
+                continue;
+            }
+            if (!all && this.position.getSideToMove() == this.humanColor) {
+                break;
+            }
+            moves.append(this.playMove());
+        }
+        if (this.position.isGameOver()) {
+            moves.append(" end ").append(this.position.getBlackCount()).append(' ')
+                    .append(this.position.getWhiteCount());
+        }
+        return moves.toString();
+    }
+
+    /*
+     * This method has the scheduler find the engine's move for the side
+     * to move, passing first if it has to, and plays it.
+     */
+    private String playMove() throws InterruptedException {
+        String moves = "";
+        if (this.position.getMoves() == 0) {
+            this.position.pass();
+            moves = " pass";
+        }
+        Position searched = new Position(this.position);
+        Move move;
+        try {
+            move = this.server.getScheduler().submit(this,
+                    () -> this.server.chooseMove(this, this.settings, this.random, searched)).get();
+        } catch (ExecutionException e) {
+            throw new IllegalArgumentException("the search failed: " + e.getCause());
+        }
+        int square = Position.square(move.getI(), move.getJ());
+        this.position.play(square);
+        return moves + " " + Position.getSquareName(square);
+    }
+
+    /*
+     * This getter method checks whether the connection has been closed.
+     */
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    /*
+     * This method checks that a game was started.
+     */
+    private void checkGame() {
+        if (this.position == null) {
+            throw new IllegalArgumentException("no game, send new first");
+        }
+    }
+}
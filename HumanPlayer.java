@@ -46,10 +46,8 @@ public class HumanPlayer implements Player {
                 if (this.gameBoard.checkMoveValidity(i, j, this.playerColor, true, false)) {
 
                     if (this.playerColor == Color.WHITE) {
-                        this.board[i][j].setWhite();
                         this.board[i][j].showLastMove(Color.DARKGRAY);
                     } else {
-                        this.board[i][j].setBlack();
                         this.board[i][j].showLastMove(Color.GRAY);
                     }
                     this.lastMove.setCoords(i, j);
@@ -68,6 +66,13 @@ public class HumanPlayer implements Player {
         this.referee.turnEnd();
     }
 
+    /*
+     * This method stops listening for clicks.
+     */
+    public void stop() {
+        this.gameBoard.getPane().setOnMouseClicked(null);
+    }
+
     /*
      * This getter method gets the row value of
      * the click.
@@ -0,0 +1,80 @@
+package othello;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ * This class counts latencies so their percentiles can be read at any
+ * time without keeping every sample. Latencies are in microseconds and go
+ * into buckets 1/16 of a power of two wide, so a percentile is within
+ * about 6% of the true value and the whole histogram is under 8 KB.
+ * Recording is lock free and can be done from any thread.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 16;
+    private static final int BUCKETS = 60 * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /*
+     * This method counts one latency.
+     */
+    public void record(long micros) {
+        this.counts.incrementAndGet(getBucket(Math.max(micros, 0)));
+    }
+
+    /*
+     * This method gets the latency that the given fraction (0.5 for the
+     * median, 0.99 for p99) of the recorded latencies are at or below.
+     * It returns 0 if nothing was recorded.
+     */
+    public long getPercentile(double fraction) {
+        long total = this.getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += this.counts.get(bucket);
+            if (seen >= Math.max(rank, 1)) {
+                return getBucketValue(bucket);
+            }
+        }
+        return getBucketValue(BUCKETS - 1);
+    }
+
+    /*
+     * This getter method gets the number of latencies recorded.
+     */
+    public long getCount() {
+        long total = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            total += this.counts.get(bucket);
+        }
+        return total;
+    }
+
+    /*
+     * This method gets the bucket of a latency: the power of two it is
+     * in, then its next four bits. Latencies under 16 get a bucket each.
+     */
+    private static int getBucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int mantissa = (int) (micros >>> (exponent - 4)) & (SUB_BUCKETS - 1);
+        return Math.min((exponent - 3) * SUB_BUCKETS + mantissa, BUCKETS - 1);
+    }
+
+    /*
+     * This method gets the smallest latency that goes into a bucket.
+     */
+    private static long getBucketValue(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 3;
+        return (SUB_BUCKETS + (long) (bucket % SUB_BUCKETS)) << (exponent - 4);
+    }
+}
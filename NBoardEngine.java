@@ -0,0 +1,359 @@
+package othello;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * This class runs the engine as a program that speaks the NBoard
+ * protocol on stdin and stdout, so it can be plugged into NBoard and
+ * other graphical interfaces or tournament managers. It loads no JavaFX.
+ * The commands it knows are:
+ *
+ *     nboard <version>        answered with "set myname"
+ *     set depth <n>           searches n plies deep from now on
+ *     set game <ggf>          the game so far, in GGF, with its clock (TI)
+ *     move <move>[/eval/time] a move was played
+ *     go                      answered with "=== <move>/<eval>/<time>"
+ *     hint <n>                the n best moves, each as "search <move> <eval> 0 <depth>"
+ *     ping <n>                answered with "pong <n>" once all before it are done
+ *     learn                   answered with "learned"
+ *     stop                    ends a running go or hint early
+ *     quit                    ends the program
+ *
+ * Commands run one at a time in the order they came, on a thread of
+ * their own, so stop and quit are seen while the engine thinks. Unknown
+ * commands are ignored, as the protocol asks. If the game has a clock,
+ * each move gets a share of the time left instead of a fixed depth:
+ *
+ *     java othello.NBoardEngine [settings]
+ */
+public class NBoardEngine {
+    private static final String NAME = "othello";
+    // the evaluation is not in discs: a corner is worth about two
+    private static final double EVAL_SCALE = 100;
+    private static final double CLOCK_SHARE = 0.9;
+    private static final long MIN_MOVE_MILLIS = 10;
+    private static final int HINT_DEPTH = 6;
+    private static final Pattern GGF_MOVE = Pattern.compile("(?<![A-Z])([BW])\\[([^\\]]*)\\]");
+    private static final Pattern GGF_BOARD = Pattern.compile("BO\\[8\\s+([^\\]]*)\\]");
+    private static final Pattern GGF_CLOCK = Pattern.compile("TI\\[([^\\]]*)\\]");
+
+    private final Engine engine;
+    private final EngineSettings settings;
+    private final ExecutorService commands = Executors.newSingleThreadExecutor();
+    // how many stops have been read, and how many had been when the running command was read
+    private final AtomicLong stops = new AtomicLong();
+    private long stopsBefore;
+    private Position position = new Position();
+    private int depth;
+    // seconds on each player's clock at the start, or -1 without a clock, and seconds used (by color)
+    private double clockSeconds = -1;
+    private final double[] usedSeconds = new double[2];
+
+    /*
+     * This constructor creates the engine the settings describe.
+     */
+    public NBoardEngine(EngineSettings settings) {
+        this.settings = settings;
+        this.depth = settings.getDepth();
+        this.engine = new Engine(settings, new Random());
+    }
+
+    /*
+     * Here is the mainline!
+     */
+    public static void main(String[] argv) throws IOException {
+        EngineSettings settings = new EngineSettings();
+        if (argv.length > 0) {
+            settings.apply(argv[0]);
+        }
+        new NBoardEngine(settings).run();
+    }
+
+    /*
+     * This method reads commands until quit or the end of the input.
+     * Quit ends the program at once, while at the end of the input the
+     * commands read so far are finished first.
+     */
+    public void run() throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            String command = line.trim();
+            if (command.equals("quit")) {
+                // commands that are still waiting are dropped
+                this.engine.getSearch().abort();
+                this.commands.shutdownNow();
+                this.engine.shutdown();
+                return;
+            } else if (command.equals("stop")) {
+                this.stops.incrementAndGet();
+                this.engine.getSearch().abort();
+            } else if (!command.isEmpty()) {
+                long stopCount = this.stops.get();
+                this.commands.execute(() -> this.handle(command, stopCount));
+            }
+        }
+        // at the end of the input, what was sent is still carried out
+        this.commands.shutdown();
+        try {
+            this.commands.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.engine.shutdown();
+    }
+
+    /*
+     * This method carries out one command on the command thread.
+     * stopCount is how many stops had been read when it was read.
+     */
+    private void handle(String command, long stopCount) {
+        this.stopsBefore = stopCount;
+        String[] words = command.split("\\s+", 3);
+        try {
+            switch (words[0]) {
+                case "nboard" -> send("set myname " + NAME);
+                case "set" -> this.set(words);
+                case "move" -> this.playMove(words[1]);
+                case "go" -> this.go();
+                case "hint" -> this.hint(Integer.parseInt(words[1]));
+                case "ping" -> send("pong " + (words.length > 1 ? words[1] : ""));
+                case "learn" -> send("learned");
+                default -> {
+                    // the protocol says to ignore what is not understood
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("could not do \"" + command + "\": " + e);
+        }
+    }
+
+    /*
+     * This method handles the set commands.
+     */
+    private void set(String[] words) {
+        if (words.length < 3) {
+            return;
+        }
+        if (words[1].equals("depth")) {
+            this.depth = Integer.parseInt(words[2].trim());
+        } else if (words[1].equals("game")) {
+            this.setGame(words[2]);
+        }
+    }
+
+    /*
+     * This method reads a game in GGF: the start position (BO), the
+     * clock (TI) and the moves played since, with the time each took.
+     */
+    private void setGame(String ggf) {
+        Matcher board = GGF_BOARD.matcher(ggf);
+        if (board.find()) {
+            this.position = Position.parse(board.group(1));
+        } else {
+            this.position = new Position();
+        }
+        Matcher clock = GGF_CLOCK.matcher(ggf);
+        this.clockSeconds = -1;
+        if (clock.find()) {
+            this.clockSeconds = parseSeconds(clock.group(1).split("/")[0]);
+        }
+        this.usedSeconds[0] = 0;
+        this.usedSeconds[1] = 0;
+        Matcher moves = GGF_MOVE.matcher(ggf);
+        while (moves.find()) {
+            this.playMove(moves.group(2));
+        }
+    }
+
+    /*
+     * This method plays a move written like "F5", "F5/1.5/0.2" (with
+     * its value and seconds taken) or "PA" for a pass.
+     */
+    private void playMove(String text) {
+        String[] fields = text.split("/");
+        int mover = this.position.getSideToMove();
+        String name = fields[0].trim();
+        if (name.equalsIgnoreCase("PA") || name.equalsIgnoreCase("pass")) {
+            this.position.pass();
+        } else {
+            int square = Position.parseSquare(name);
+            if (square < 0 || (this.position.getMoves() & (1L << square)) == 0) {
+                throw new IllegalArgumentException("illegal move " + text);
+            }
+            this.position.play(square);
+        }
+        if (fields.length > 2 && !fields[2].isBlank()) {
+            this.usedSeconds[mover] += Double.parseDouble(fields[2]);
+        }
+    }
+
+    /*
+     * This method finds a move for the side to move and sends it with
+     * its value and the seconds it took. A player with no move passes.
+     */
+    private void go() {
+        send("status Thinking");
+        long start = System.currentTimeMillis();
+        String move = "PA";
+        double eval = 0;
+        if (this.position.getMoves() != 0) {
+            this.prepareSearch();
+            boolean solved = Long.bitCount(this.position.getEmpty()) <= this.settings.getEndgameEmpties();
+            Move best = this.engine.chooseMove(new Position(this.position));
+            move = Position.getSquareName(Position.square(best.getI(), best.getJ())).toUpperCase();
+            eval = this.toDiscs(best.getVal(), solved || this.engine.getStats().isBook());
+        }
+        double seconds = (System.currentTimeMillis() - start) / 1000.0;
+        send(String.format("=== %s/%.2f/%.3f", move, eval, seconds));
+        send("status");
+    }
+
+    /*
+     * This method searches every move and sends the best n of them,
+     * best first, each valued by searching the position after it one
+     * ply less deep (HINT_DEPTH deep in all if NBoard set no depth). It
+     * stops early, sending the moves it finished, after stop.
+     */
+    private void hint(int count) {
+        long moves = this.position.getMoves();
+        if (moves == 0) {
+            return;
+        }
+        send("status Analyzing");
+        this.prepareSearch();
+        int hintDepth = HINT_DEPTH;
+        if (this.depth > 0) {
+            hintDepth = this.depth;
+        }
+        int[] squares = new int[Long.bitCount(moves)];
+        double[] values = new double[squares.length];
+        Search search = this.engine.getSearch();
+        int searched = 0;
+        while (searched < squares.length) {
+            int square = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+            Position child = new Position(this.position);
+            child.play(square);
+            double value = this.getValue(search, child, hintDepth - 1);
+            if (search.isCancelled()) {
+                break;
+            }
+            squares[searched] = square;
+            values[searched] = value;
+            searched++;
+        }
+
+        // a handful of moves, so a selection sort is plenty
+        boolean solved = Long.bitCount(this.position.getEmpty()) - 1 <= this.settings.getEndgameEmpties();
+        for (int k = 0; k < Math.min(count, searched); k++) {
+            int best = k;
+            for (int other = k + 1; other < searched; other++) {
+                if (values[other] > values[best]) {
+                    best = other;
+                }
+            }
+            int square = squares[best];
+            double value = values[best];
+            squares[best] = squares[k];
+            values[best] = values[k];
+            squares[k] = square;
+            values[k] = value;
+            send(String.format("search %s %.2f 0 %s", Position.getSquareName(square).toUpperCase(), value,
+                    solved ? "100%" : String.valueOf(hintDepth)));
+        }
+        send("status");
+    }
+
+    /*
+     * This method gets the value of a position for the player who moved
+     * into it, searching it to the given depth.
+     */
+    private double getValue(Search search, Position child, int childDepth) {
+        if (child.isGameOver()) {
+            return Long.bitCount(child.getOpp()) - Long.bitCount(child.getOwn());
+        }
+        int sign = -1;
+        if (child.getMoves() == 0) {
+            child.pass();
+            sign = 1;
+        }
+        Move reply = search.getBestMove(child, Math.max(childDepth, 1));
+        boolean exact = Long.bitCount(child.getEmpty()) <= this.settings.getEndgameEmpties();
+        return sign * this.toDiscs(reply.getVal(), exact);
+    }
+
+    /*
+     * This method turns a search value into the rough disc difference
+     * NBoard shows. Values of the endgame solver are already exact disc
+     * differences, and so is the book's average result.
+     */
+    private double toDiscs(int value, boolean exact) {
+        if (exact) {
+            return value;
+        }
+        if (value >= Constants.HIGH_VAL) {
+            return 64;
+        } else if (value <= Constants.LOW_VAL) {
+            return -64;
+        }
+        return value / EVAL_SCALE;
+    }
+
+    /*
+     * This method sets the search up for the next go or hint: a share of
+     * the time left if the game has a clock, otherwise the depth NBoard
+     * asked for. It also clears a stop that came after the last search,
+     * unless it came after this command, which then ends straight away.
+     */
+    private void prepareSearch() {
+        Search search = this.engine.getSearch();
+        // cleared first, so a stop read in between is not lost
+        search.clearAbort();
+        if (this.stops.get() != this.stopsBefore) {
+            search.abort();
+        }
+        if (this.clockSeconds < 0) {
+            this.settings.setDepth(this.depth);
+            return;
+        }
+        int color = this.position.getSideToMove();
+        double left = this.clockSeconds - this.usedSeconds[color];
+        // the side to move makes about half of the moves that are left
+        int movesLeft = Long.bitCount(this.position.getEmpty()) / 2 + 1;
+        long millis = (long) (1000 * CLOCK_SHARE * left / movesLeft);
+        this.settings.setDepth(0);
+        this.settings.setTimeMillis(Math.max(millis, MIN_MOVE_MILLIS));
+    }
+
+    /*
+     * This method reads a GGF time like "15:00", "1:00:00" or "90".
+     */
+    private static double parseSeconds(String text) {
+        double seconds = 0;
+        for (String part : text.trim().split(":")) {
+            seconds = seconds * 60 + Double.parseDouble(part);
+        }
+        return seconds;
+    }
+
+    /*
+     * This method writes a line to NBoard straight away.
+     */
+    private static void send(String line) {
+        synchronized (System.out) {
+            System.out.println(line);
+            System.out.flush();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package othello;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/*
+ * This class measures how well the search orders its moves: it counts
+ * the nodes each engine settings needs to search a fixed set of positions
+ * to the same depth, and compares every settings with the first. Fewer
+ * nodes to the same depth means more cutoffs. The table is cleared before
+ * each position, so only what one search learns is used. It runs
+ * without JavaFX:
+ *
+ *     java othello.NodeCount [depth] [positions] [seed] [settings ...]
+ *
+ * Without settings it compares the move ordering heuristics (the
+ * table's best move, killers and history), none, each on its own and
+ * all together. Each engine searches with one thread.
+ */
+public class NodeCount {
+    private static final String[] DEFAULT_SETTINGS = {"tablemove=false,killers=false,history=false",
+        "tablemove=true,killers=false,history=false", "tablemove=false,killers=true,history=false",
+        "tablemove=false,killers=false,history=true", "tablemove=true,killers=true,history=true"};
+
+    /*
+     * Here is the mainline!
+     */
+    public static void main(String[] argv) {
+        int depth = 8;
+        int positionCount = 40;
+        long seed = 1;
+        String[] settingsList = DEFAULT_SETTINGS;
+        if (argv.length > 0) {
+            depth = Integer.parseInt(argv[0]);
+        }
+        if (argv.length > 1) {
+            positionCount = Integer.parseInt(argv[1]);
+        }
+        if (argv.length > 2) {
+            seed = Long.parseLong(argv[2]);
+        }
+        if (argv.length > 3) {
+            settingsList = new String[argv.length - 3];
+            System.arraycopy(argv, 3, settingsList, 0, settingsList.length);
+        }
+
+        ArrayList<Position> positions = SearchSpeedup.makePositions(positionCount, seed);
+        long baseNodes = 0;
+        for (String text : settingsList) {
+            EngineSettings settings = new EngineSettings();
+            settings.setThreads(1);
+            settings.apply(text);
+            Engine engine = new Engine(settings, new Random(seed));
+            Search search = engine.getSearch();
+            long nodes = 0;
+            long start = System.nanoTime();
+            for (Position position : positions) {
+                search.getTable().clear();
+                search.getBestMove(position, depth);
+                nodes += search.getNodes();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            engine.shutdown();
+
+            if (baseNodes == 0) {
+                baseNodes = nodes;
+            }
+            System.out.printf("%-40s %12d nodes (%6.1f%%), %7.2f s, %9.0f nodes/s%n", text, nodes,
+                    100.0 * nodes / baseNodes, seconds, nodes / seconds);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Random;
+
+/*
+ * This is the OpeningBook class. It holds moves that are known to be
+ * good in the opening, so the computer does not have to search them. The
+ * book is a binary file of fixed-size entries sorted by position key,
+ * which is mapped into memory read-only and binary searched, so opening
+ * it costs almost nothing. A position and its seven rotations and
+ * reflections share one key, and their moves are stored for the
+ * orientation with the smallest hash. OpeningBookBuilder writes the file.
+ *
+ * File layout (big-endian): a header of MAGIC, VERSION and the entry
+ * count as ints, then per entry the key (long), the number of games (int),
+ * the average final disc difference for the mover (short), the move
+ * square (byte) and one unused byte.
+ */
+public class OpeningBook {
+    public static final int MAGIC = 0x4f424f4b;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 12;
+    public static final int ENTRY_BYTES = 16;
+    public static final int SYMMETRIES = 8;
+
+    private static OpeningBook defaultBook;
+    private static boolean defaultLoaded;
+
+    private final MappedByteBuffer buffer;
+    private final int entryCount;
+
+    /*
+     * This constructor maps the book file into memory and checks its header.
+     */
+    public OpeningBook(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (this.buffer.capacity() < HEADER_BYTES || this.buffer.getInt(0) != MAGIC
+                || this.buffer.getInt(4) != VERSION) {
+            throw new IOException(path + " is not an opening book");
+        }
+        this.entryCount = this.buffer.getInt(8);
+        if ((long) HEADER_BYTES + (long) this.entryCount * ENTRY_BYTES > this.buffer.capacity()) {
+            throw new IOException(path + " is cut short");
+        }
+    }
+
+    /*
+     * This method gets the book in Constants.BOOK_FILE, loading it the
+     * first time. It returns null if there is no book, so the computer
+     * just searches every move.
+     */
+    public static synchronized OpeningBook getDefault() {
+        if (!defaultLoaded) {
+            defaultLoaded = true;
+            Path path = Path.of(Constants.BOOK_FILE);
+            if (Files.exists(path)) {
+                try {
+                    defaultBook = new OpeningBook(path);
+                } catch (IOException e) {
+                    System.err.println("could not open the opening book: " + e.getMessage());
+                }
+            }
+        }
+        return defaultBook;
+    }
+
+    /*
+     * This method looks the position up and returns the book move with
+     * the best score, choosing at random between equally good ones. The
+     * value of the move is its average final disc difference. It returns
+     * null if the position is not in the book.
+     */
+    public Move getMove(Position position, Random random) {
+        int symmetry = getCanonicalSymmetry(position);
+        long key = getKey(position, symmetry);
+        int index = this.findFirst(key);
+        ArrayList<Integer> bestSquares = new ArrayList<>();
+        int bestScore = Integer.MIN_VALUE;
+        for (; index < this.entryCount && this.getEntryKey(index) == key; index++) {
+            int offset = HEADER_BYTES + index * ENTRY_BYTES;
+            int score = this.buffer.getShort(offset + 12);
+            int square = undoSquare(this.buffer.get(offset + 14), symmetry);
+            // a stale or colliding entry could point anywhere
+            if ((position.getMoves() & (1L << square)) == 0) {
+                continue;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestSquares.clear();
+                bestSquares.add(square);
+            } else if (score == bestScore) {
+                bestSquares.add(square);
+            }
+        }
+        if (bestSquares.isEmpty()) {
+            return null;
+        }
+        int square = bestSquares.get(random.nextInt(bestSquares.size()));
+        return new Move(Position.getRow(square), Position.getCol(square), bestScore);
+    }
+
+    /*
+     * This method binary searches for the first entry with the key, or
+     * the entry after where it would be.
+     */
+    private int findFirst(long key) {
+        int low = 0;
+        int high = this.entryCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (this.getEntryKey(middle) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * This getter method gets the key of an entry.
+     */
+    private long getEntryKey(int index) {
+        return this.buffer.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    /*
+     * This getter method gets the number of entries in the book.
+     */
+    public int getEntryCount() {
+        return this.entryCount;
+    }
+
+    /*
+     * This method writes one entry at the current position of a buffer.
+     */
+    public static void putEntry(ByteBuffer buffer, long key, int count, int score, int square) {
+        buffer.putLong(key);
+        buffer.putInt(count);
+        buffer.putShort((short) score);
+        buffer.put((byte) square);
+        buffer.put((byte) 0);
+    }
+
+    /*
+     * This method finds which of the eight symmetries gives the position
+     * its smallest hash. The book stores everything in that orientation.
+     */
+    public static int getCanonicalSymmetry(Position position) {
+        int best = 0;
+        long bestHash = getKey(position, 0);
+        for (int symmetry = 1; symmetry < SYMMETRIES; symmetry++) {
+            long hash = getKey(position, symmetry);
+            if (hash < bestHash) {
+                bestHash = hash;
+                best = symmetry;
+            }
+        }
+        return best;
+    }
+
+    /*
+     * This method hashes the position as seen through a symmetry.
+     */
+    public static long getKey(Position position, int symmetry) {
+        return Zobrist.hash(transform(position.getBlack(), symmetry),
+                transform(position.getWhite(), symmetry), position.getSideToMove());
+    }
+
+    /*
+     * This method turns a square into the matching square under a symmetry.
+     */
+    public static int transformSquare(int square, int symmetry) {
+        return Long.numberOfTrailingZeros(transform(1L << square, symmetry));
+    }
+
+    /*
+     * This method turns a square back from a symmetry, undoing
+     * transformSquare.
+     */
+    public static int undoSquare(int square, int symmetry) {
+        long pieces = 1L << square;
+        // each step is its own inverse, so they are undone in reverse order
+        if ((symmetry & 4) != 0) {
+            pieces = transpose(pieces);
+        }
+        if ((symmetry & 2) != 0) {
+            pieces = mirrorCols(pieces);
+        }
+        if ((symmetry & 1) != 0) {
+            pieces = Long.reverseBytes(pieces);
+        }
+        return Long.numberOfTrailingZeros(pieces);
+    }
+
+    /*
+     * This method applies one of the eight symmetries of the board to a
+     * mask. Bit 1 flips the rows, bit 2 flips the columns and bit 4 swaps
+     * rows with columns.
+     */
+    public static long transform(long pieces, int symmetry) {
+        if ((symmetry & 1) != 0) {
+            pieces = Long.reverseBytes(pieces);
+        }
+        if ((symmetry & 2) != 0) {
+            pieces = mirrorCols(pieces);
+        }
+        if ((symmetry & 4) != 0) {
+            pieces = transpose(pieces);
+        }
+        return pieces;
+    }
+
+    /*
+     * This method flips a mask left to right by reversing the bits of
+     * every row.
+     */
+    public static long mirrorCols(long pieces) {
+        pieces = ((pieces >>> 1) & 0x5555555555555555L) | ((pieces & 0x5555555555555555L) << 1);
+        pieces = ((pieces >>> 2) & 0x3333333333333333L) | ((pieces & 0x3333333333333333L) << 2);
+        return ((pieces >>> 4) & 0x0f0f0f0f0f0f0f0fL) | ((pieces & 0x0f0f0f0f0f0f0f0fL) << 4);
+    }
+
+    /*
+     * This method swaps the rows and columns of a mask, swapping blocks
+     * across the diagonal from 4x4 down to single squares.
+     */
+    public static long transpose(long pieces) {
+        long swap = 0x0f0f0f0f00000000L & (pieces ^ (pieces << 28));
+        pieces ^= swap ^ (swap >>> 28);
+        swap = 0x3333000033330000L & (pieces ^ (pieces << 14));
+        pieces ^= swap ^ (swap >>> 14);
+        swap = 0x5500550055005500L & (pieces ^ (pieces << 7));
+        pieces ^= swap ^ (swap >>> 7);
+        return pieces;
+    }
+}
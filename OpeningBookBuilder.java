@@ -0,0 +1,241 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/*
+ * This class builds the opening book that OpeningBook reads. It either
+ * plays games against itself (a few random moves to spread the openings,
+ * then fixed depth searches) or imports games written as text like
+ * "f5d6c3d3...", one game per line, or from a game record archive
+ * (see GameArchive). For every position in the first
+ * BOOK_PLIES moves it records how often each move was played and the
+ * average final disc difference for the player who played it. It runs
+ * without JavaFX:
+ *
+ *     java othello.OpeningBookBuilder <book> selfplay [games] [depth] [seed]
+ *     java othello.OpeningBookBuilder <book> import <games.txt>
+ *     java othello.OpeningBookBuilder <book> archive <games.ogr>
+ */
+public class OpeningBookBuilder {
+    private static final int BOOK_PLIES = 20;
+    private static final int RANDOM_PLIES = 6;
+    private static final int MIN_COUNT = 2;
+
+    // canonical key -> move square -> {games, total disc difference}
+    private final HashMap<Long, HashMap<Integer, long[]>> stats = new HashMap<>();
+    private int gameCount;
+
+    /*
+     * Here is the mainline!
+     */
+    public static void main(String[] argv) throws IOException {
+        if (argv.length < 2) {
+            System.out.println("usage: OpeningBookBuilder <book> selfplay [games] [depth] [seed]");
+            System.out.println("       OpeningBookBuilder <book> import <games.txt>");
+            System.out.println("       OpeningBookBuilder <book> archive <games.ogr>");
+            return;
+        }
+        OpeningBookBuilder builder = new OpeningBookBuilder();
+        if (argv[1].equals("import") && argv.length > 2) {
+            builder.importGames(Path.of(argv[2]));
+        } else if (argv[1].equals("archive") && argv.length > 2) {
+            builder.importArchive(Path.of(argv[2]));
+        } else {
+            int games = 1000;
+            int depth = 6;
+            long seed = 1;
+            if (argv.length > 2) {
+                games = Integer.parseInt(argv[2]);
+            }
+            if (argv.length > 3) {
+                depth = Integer.parseInt(argv[3]);
+            }
+            if (argv.length > 4) {
+                seed = Long.parseLong(argv[4]);
+            }
+            builder.playGames(games, depth, seed);
+        }
+        int entries = builder.write(Path.of(argv[0]));
+        System.out.println(builder.gameCount + " games, " + entries + " book entries written to " + argv[0]);
+    }
+
+    /*
+     * This method plays games of the computer against itself and adds
+     * them to the book.
+     */
+    public void playGames(int games, int depth, long seed) {
+        Random random = new Random(seed);
+        Search search = new Search(Constants.TABLE_MEGABYTES, Constants.SEARCH_THREADS, new Random(seed));
+        for (int game = 0; game < games; game++) {
+            Position position = new Position();
+            ArrayList<Integer> squares = new ArrayList<>();
+            while (!position.isGameOver()) {
+                long moves = position.getMoves();
+                if (moves == 0) {
+                    position.pass();
+                    continue;
+                }
+                int square;
+                if (squares.size() < RANDOM_PLIES) {
+                    for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) {
+                        moves &= moves - 1;
+                    }
+                    square = Long.numberOfTrailingZeros(moves);
+                } else {
+                    Move move = search.getBestMove(position, depth);
+                    square = Position.square(move.getI(), move.getJ());
+                }
+                position.play(square);
+                squares.add(square);
+            }
+            this.addGame(squares.stream().mapToInt(Integer::intValue).toArray());
+            if ((game + 1) % 100 == 0) {
+                System.out.println((game + 1) + " games played");
+            }
+        }
+        search.shutdown();
+    }
+
+    /*
+     * This method reads a text file of games and adds every legal one
+     * to the book.
+     */
+    public void importGames(Path path) throws IOException {
+        int skipped = 0;
+        for (String line : Files.readAllLines(path)) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            int[] squares = parseGame(line);
+            if (squares == null || !this.addGame(squares)) {
+                skipped++;
+            }
+        }
+        if (skipped > 0) {
+            System.out.println(skipped + " games skipped because they could not be read");
+        }
+    }
+
+    /*
+     * This method reads a game record archive a game at a time and adds
+     * every legal game to the book.
+     */
+    public void importArchive(Path path) throws IOException {
+        int skipped = 0;
+        try (GameRecordReader reader = new GameRecordReader(path)) {
+            GameRecord record;
+            while ((record = reader.next()) != null) {
+                if (!this.addGame(record.getMoves())) {
+                    skipped++;
+                }
+            }
+        }
+        if (skipped > 0) {
+            System.out.println(skipped + " games skipped because they could not be read");
+        }
+    }
+
+    /*
+     * This method turns a game like "f5d6c3" into squares. It returns
+     * null if the text is not a list of squares.
+     */
+    public static int[] parseGame(String text) {
+        text = text.replaceAll("\\s", "");
+        if (text.length() % 2 != 0) {
+            return null;
+        }
+        int[] squares = new int[text.length() / 2];
+        for (int k = 0; k < squares.length; k++) {
+            squares[k] = Position.parseSquare(text.substring(2 * k, 2 * k + 2));
+            if (squares[k] < 0) {
+                return null;
+            }
+        }
+        return squares;
+    }
+
+    /*
+     * This method replays a game and counts its first BOOK_PLIES moves
+     * towards the book. Passes are not written down, so a player with no
+     * move just passes. It returns false, adding nothing, if a move is
+     * not legal.
+     */
+    public boolean addGame(int[] squares) {
+        Position position = new Position();
+        long[] keys = new long[Math.min(squares.length, BOOK_PLIES)];
+        int[] bookSquares = new int[keys.length];
+        int[] movers = new int[keys.length];
+        for (int ply = 0; ply < squares.length; ply++) {
+            if (position.getMoves() == 0) {
+                position.pass();
+            }
+            if (ply < keys.length) {
+                int symmetry = OpeningBook.getCanonicalSymmetry(position);
+                keys[ply] = OpeningBook.getKey(position, symmetry);
+                bookSquares[ply] = OpeningBook.transformSquare(squares[ply], symmetry);
+                movers[ply] = position.getSideToMove();
+            }
+            if (position.play(squares[ply]) == 0) {
+                return false;
+            }
+        }
+
+        int blackDiff = position.getBlackCount() - position.getWhiteCount();
+        for (int ply = 0; ply < keys.length; ply++) {
+            int diff = blackDiff;
+            if (movers[ply] == Constants.WHITE) {
+                diff = -blackDiff;
+            }
+            long[] moveStats = this.stats.computeIfAbsent(keys[ply], key -> new HashMap<>())
+                    .computeIfAbsent(bookSquares[ply], square -> new long[2]);
+            moveStats[0]++;
+            moveStats[1] += diff;
+        }
+        this.gameCount++;
+        return true;
+    }
+
+    /*
+     * This method writes the book sorted by key, leaving out moves played
+     * fewer than MIN_COUNT times. It returns the number of entries.
+     */
+    public int write(Path path) throws IOException {
+        long[] keys = new long[this.stats.size()];
+        int keyCount = 0;
+        for (long key : this.stats.keySet()) {
+            keys[keyCount++] = key;
+        }
+        Arrays.sort(keys);
+
+        List<long[]> entries = new ArrayList<>();
+        for (long key : keys) {
+            HashMap<Integer, long[]> moves = this.stats.get(key);
+            for (int square = 0; square < 64; square++) {
+                long[] moveStats = moves.get(square);
+                if (moveStats != null && moveStats[0] >= MIN_COUNT) {
+                    entries.add(new long[]{key, moveStats[0], Math.round((double) moveStats[1] / moveStats[0]), square});
+                }
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_BYTES + entries.size() * OpeningBook.ENTRY_BYTES);
+        buffer.putInt(OpeningBook.MAGIC);
+        buffer.putInt(OpeningBook.VERSION);
+        buffer.putInt(entries.size());
+        for (long[] entry : entries) {
+            int count = (int) Math.min(entry[1], Integer.MAX_VALUE);
+            OpeningBook.putEntry(buffer, entry[0], count, (int) entry[2], (int) entry[3]);
+        }
+        Files.write(path, buffer.array());
+        return entries.size();
+    }
+}
@@ -0,0 +1,282 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/*
+ * This is the PatternEvaluator class. It values a position by looking up
+ * patterns of squares in tables of weights: the edges with their X
+ * squares, the 2x5 and 3x3 blocks in the corners, the second, third and
+ * fourth rows and the diagonals of four to eight squares, each wherever
+ * the eight symmetries of the board put it (46 patterns in all). A
+ * pattern's squares are read as a base-3 number, 0 for empty, 1 for the
+ * player to move and 2 for the opponent: Long.compress gathers each
+ * side's bits of the pattern and a table turns those bits into base-3
+ * digits, so a pattern costs the same whatever is on its squares. The
+ * weights are kept per game stage (STAGE_EMPTIES empty squares wide) in
+ * hundredths of a disc, the scale of the square weights, and are read
+ * from a binary file that PatternTrainer writes.
+ *
+ * File layout (big-endian): a header of MAGIC, VERSION, the number of
+ * stages and the number of weights per stage as ints, then per stage its
+ * bias and its weights as shorts, shape by shape.
+ */
+public class PatternEvaluator {
+    public static final int MAGIC = 0x4f505431;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int STAGE_EMPTIES = 4;
+    public static final int STAGES = 60 / STAGE_EMPTIES + 1;
+    private static final int MAX_SHAPE_SQUARES = 10;
+
+    // each shape where it touches square 0's corner or edge; the others are its symmetries
+    private static final long[] SHAPES = {
+        0x42ffL,        // the edge with both X squares
+        0x1f1fL,        // 2x5 corner
+        0x070707L,      // 3x3 corner
+        0xff00L,        // second row
+        0xff0000L,      // third row
+        0xff000000L,    // fourth row
+        getDiagonal(8),
+        getDiagonal(7),
+        getDiagonal(6),
+        getDiagonal(5),
+        getDiagonal(4)
+    };
+    public static final int SHAPE_COUNT = SHAPES.length;
+    // where each shape's weights start in a stage, and how many weights a stage has
+    private static final int[] OFFSETS = new int[SHAPE_COUNT + 1];
+    public static final int WEIGHT_COUNT;
+    // the shapes that are read with the board turned by each symmetry
+    private static final int[][] SHAPES_BY_SYMMETRY = new int[OpeningBook.SYMMETRIES][];
+    public static final int PATTERN_COUNT;
+    // a number written in binary, with its digits read in base 3
+    private static final int[] TO_BASE3 = new int[1 << MAX_SHAPE_SQUARES];
+
+    static {
+        for (int shape = 0; shape < SHAPE_COUNT; shape++) {
+            OFFSETS[shape + 1] = OFFSETS[shape] + (int) Math.pow(3, Long.bitCount(SHAPES[shape]));
+        }
+        WEIGHT_COUNT = OFFSETS[SHAPE_COUNT];
+
+        // a symmetry reads a shape only if it lands on squares no other one did
+        ArrayList<ArrayList<Integer>> shapesBySymmetry = new ArrayList<>();
+        for (int symmetry = 0; symmetry < OpeningBook.SYMMETRIES; symmetry++) {
+            shapesBySymmetry.add(new ArrayList<>());
+        }
+        int patternCount = 0;
+        for (int shape = 0; shape < SHAPE_COUNT; shape++) {
+            ArrayList<Long> placed = new ArrayList<>();
+            for (int symmetry = 0; symmetry < OpeningBook.SYMMETRIES; symmetry++) {
+                long squares = 0;
+                for (long bits = SHAPES[shape]; bits != 0; bits &= bits - 1) {
+                    squares |= 1L << OpeningBook.undoSquare(Long.numberOfTrailingZeros(bits), symmetry);
+                }
+                if (!placed.contains(squares)) {
+                    placed.add(squares);
+                    shapesBySymmetry.get(symmetry).add(shape);
+                    patternCount++;
+                }
+            }
+        }
+        for (int symmetry = 0; symmetry < OpeningBook.SYMMETRIES; symmetry++) {
+            ArrayList<Integer> shapes = shapesBySymmetry.get(symmetry);
+            SHAPES_BY_SYMMETRY[symmetry] = new int[shapes.size()];
+            for (int k = 0; k < shapes.size(); k++) {
+                SHAPES_BY_SYMMETRY[symmetry][k] = shapes.get(k);
+            }
+        }
+        PATTERN_COUNT = patternCount;
+
+        for (int bits = 1; bits < TO_BASE3.length; bits++) {
+            int lowest = Integer.numberOfTrailingZeros(bits);
+            TO_BASE3[bits] = TO_BASE3[bits & (bits - 1)] + (int) Math.pow(3, lowest);
+        }
+    }
+
+    private static PatternEvaluator defaultEvaluator;
+    private static boolean defaultLoaded;
+
+    // by stage: the bias, and the weights of every shape one after another
+    private final short[] biases = new short[STAGES];
+    private final short[][] weights = new short[STAGES][WEIGHT_COUNT];
+
+    /*
+     * This constructor creates an evaluator whose weights are all 0.
+     */
+    public PatternEvaluator() {
+    }
+
+    /*
+     * This constructor reads the weights from a file and checks its header.
+     */
+    public PatternEvaluator(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException(path + " is not a pattern file");
+        }
+        if (buffer.getInt() != STAGES || buffer.getInt() != WEIGHT_COUNT) {
+            throw new IOException(path + " was made for other patterns");
+        }
+        if (buffer.remaining() < STAGES * (WEIGHT_COUNT + 1) * 2) {
+            throw new IOException(path + " is cut short");
+        }
+        for (int stage = 0; stage < STAGES; stage++) {
+            this.biases[stage] = buffer.getShort();
+            buffer.asShortBuffer().get(this.weights[stage]);
+            buffer.position(buffer.position() + WEIGHT_COUNT * 2);
+        }
+    }
+
+    /*
+     * This method gets the weights in Constants.PATTERN_FILE, loading
+     * them the first time. It returns null if there is no file, so the
+     * square weights are used.
+     */
+    public static synchronized PatternEvaluator getDefault() {
+        if (!defaultLoaded) {
+            defaultLoaded = true;
+            Path path = Path.of(Constants.PATTERN_FILE);
+            if (Files.exists(path)) {
+                try {
+                    defaultEvaluator = new PatternEvaluator(path);
+                } catch (IOException e) {
+                    System.err.println("could not read the pattern file: " + e.getMessage());
+                }
+            }
+        }
+        return defaultEvaluator;
+    }
+
+    /*
+     * This method gets the value of the position for the player to move.
+     */
+    public int evaluate(Position position) {
+        return this.evaluate(position.getOwn(), position.getOpp());
+    }
+
+    /*
+     * This method gets the value of the board with the given pieces of the
+     * player to move (own) and of the opponent (opp). The board is turned
+     * by each symmetry once, and every pattern is two gathers and three
+     * lookups.
+     */
+    public int evaluate(long own, long opp) {
+        int stage = getStage(Long.bitCount(~(own | opp)));
+        short[] stageWeights = this.weights[stage];
+        long ownRows = Long.reverseBytes(own);
+        long oppRows = Long.reverseBytes(opp);
+        long ownCols = OpeningBook.mirrorCols(own);
+        long oppCols = OpeningBook.mirrorCols(opp);
+        long ownBoth = OpeningBook.mirrorCols(ownRows);
+        long oppBoth = OpeningBook.mirrorCols(oppRows);
+        return this.biases[stage]
+                + sumWeights(stageWeights, own, opp, 0)
+                + sumWeights(stageWeights, ownRows, oppRows, 1)
+                + sumWeights(stageWeights, ownCols, oppCols, 2)
+                + sumWeights(stageWeights, ownBoth, oppBoth, 3)
+                + sumWeights(stageWeights, OpeningBook.transpose(own), OpeningBook.transpose(opp), 4)
+                + sumWeights(stageWeights, OpeningBook.transpose(ownRows), OpeningBook.transpose(oppRows), 5)
+                + sumWeights(stageWeights, OpeningBook.transpose(ownCols), OpeningBook.transpose(oppCols), 6)
+                + sumWeights(stageWeights, OpeningBook.transpose(ownBoth), OpeningBook.transpose(oppBoth), 7);
+    }
+
+    /*
+     * This method adds up the weights of the shapes read with the board
+     * turned by a symmetry.
+     */
+    private static int sumWeights(short[] stageWeights, long own, long opp, int symmetry) {
+        int sum = 0;
+        for (int shape : SHAPES_BY_SYMMETRY[symmetry]) {
+            sum += stageWeights[getIndex(own, opp, shape)];
+        }
+        return sum;
+    }
+
+    /*
+     * This method gets where the weight of a shape's squares is in a
+     * stage's weights, for a board already turned by its symmetry.
+     */
+    private static int getIndex(long own, long opp, int shape) {
+        long mask = SHAPES[shape];
+        return OFFSETS[shape] + TO_BASE3[(int) Long.compress(own, mask)]
+                + 2 * TO_BASE3[(int) Long.compress(opp, mask)];
+    }
+
+    /*
+     * This method puts where the weight of each of the PATTERN_COUNT
+     * patterns of the position is into indices, for PatternTrainer.
+     */
+    public static void getIndices(long own, long opp, int[] indices) {
+        int count = 0;
+        for (int symmetry = 0; symmetry < OpeningBook.SYMMETRIES; symmetry++) {
+            long turnedOwn = OpeningBook.transform(own, symmetry);
+            long turnedOpp = OpeningBook.transform(opp, symmetry);
+            for (int shape : SHAPES_BY_SYMMETRY[symmetry]) {
+                indices[count++] = getIndex(turnedOwn, turnedOpp, shape);
+            }
+        }
+    }
+
+    /*
+     * This method gets the stage of a position with the given number of
+     * empty squares.
+     */
+    public static int getStage(int empties) {
+        return Math.min(empties / STAGE_EMPTIES, STAGES - 1);
+    }
+
+    /*
+     * This setter method sets the bias of a stage, clamped to a short.
+     */
+    public void setBias(int stage, int bias) {
+        this.biases[stage] = toShort(bias);
+    }
+
+    /*
+     * This setter method sets a weight of a stage, clamped to a short.
+     */
+    public void setWeight(int stage, int index, int weight) {
+        this.weights[stage][index] = toShort(weight);
+    }
+
+    /*
+     * This method clamps a value to the range of a short.
+     */
+    private static short toShort(int value) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+    }
+
+    /*
+     * This method writes the weights to a file.
+     */
+    public void write(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + STAGES * (WEIGHT_COUNT + 1) * 2);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(STAGES);
+        buffer.putInt(WEIGHT_COUNT);
+        for (int stage = 0; stage < STAGES; stage++) {
+            buffer.putShort(this.biases[stage]);
+            for (short weight : this.weights[stage]) {
+                buffer.putShort(weight);
+            }
+        }
+        Files.write(path, buffer.array());
+    }
+
+    /*
+     * This method makes the diagonal of the given length that ends on the
+     * edge of square 0's row.
+     */
+    private static long getDiagonal(int length) {
+        long squares = 0;
+        for (int row = 1; row <= length; row++) {
+            squares |= 1L << Position.square(row, row + 8 - length);
+        }
+        return squares;
+    }
+}
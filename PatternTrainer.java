@@ -0,0 +1,264 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * This class trains the pattern weights that PatternEvaluator reads. Every
+ * position of its games (but those where the player to move has to pass)
+ * is labelled with the final disc difference for the player to move, in
+ * hundredths of a disc, and the weights of each stage are fitted to those
+ * labels by least squares. Each pass over the positions moves every
+ * weight by the average error of the positions it appears in, so rare
+ * patterns learn as quickly as common ones. Every tenth game is held
+ * back to check the fit on games it was not trained on. The games are
+ * either played by the engine against itself (a few random moves to
+ * spread the openings, then fixed depth searches, which solve the
+ * endgame exactly) or read from a game record archive (see GameArchive).
+ * The positions are kept in memory. It runs without JavaFX:
+ *
+ *     java othello.PatternTrainer <file> selfplay [games] [depth] [seed] [passes]
+ *     java othello.PatternTrainer <file> archive <games.ogr> [passes]
+ *
+ * Use the file by copying it to Constants.PATTERN_FILE.
+ */
+public class PatternTrainer {
+    private static final int DISC_SCALE = 100;
+    private static final int RANDOM_PLIES = 8;
+    private static final int TEST_EVERY = 10;
+    // how far each pass moves a weight towards fitting; much more and the fit diverges
+    private static final double STEP = 0.02;
+    // a weight seen this many times or less moves less than the average error
+    private static final int SMOOTHING = 8;
+
+    private long[] owns = new long[1 << 16];
+    private long[] opps = new long[1 << 16];
+    private short[] targets = new short[1 << 16];
+    private boolean[] tests = new boolean[1 << 16];
+    private int sampleCount;
+    private int gameCount;
+
+    /*
+     * Here is the mainline!
+     */
+    public static void main(String[] argv) throws IOException {
+        if (argv.length < 2 || (argv[1].equals("archive") && argv.length < 3)) {
+            System.out.println("usage: PatternTrainer <file> selfplay [games] [depth] [seed] [passes]");
+            System.out.println("       PatternTrainer <file> archive <games.ogr> [passes]");
+            return;
+        }
+        PatternTrainer trainer = new PatternTrainer();
+        int passes = 50;
+        if (argv[1].equals("archive")) {
+            trainer.importArchive(Path.of(argv[2]));
+            if (argv.length > 3) {
+                passes = Integer.parseInt(argv[3]);
+            }
+        } else {
+            int games = 2000;
+            int depth = 4;
+            long seed = 1;
+            if (argv.length > 2) {
+                games = Integer.parseInt(argv[2]);
+            }
+            if (argv.length > 3) {
+                depth = Integer.parseInt(argv[3]);
+            }
+            if (argv.length > 4) {
+                seed = Long.parseLong(argv[4]);
+            }
+            if (argv.length > 5) {
+                passes = Integer.parseInt(argv[5]);
+            }
+            trainer.playGames(games, depth, seed);
+        }
+        System.out.println(trainer.gameCount + " games, " + trainer.sampleCount + " positions");
+        trainer.train(passes).write(Path.of(argv[0]));
+        System.out.println("weights written to " + argv[0]);
+    }
+
+    /*
+     * This method plays games of the engine against itself and adds their
+     * positions. The engine values leaves with the pattern weights in
+     * Constants.PATTERN_FILE if there are any, so weights can be trained
+     * again on games they played.
+     */
+    public void playGames(int games, int depth, long seed) {
+        Random random = new Random(seed);
+        Search search = new Search(Constants.TABLE_MEGABYTES, 1, new Random(seed));
+        search.setEvaluator(PatternEvaluator.getDefault());
+        int[] moves = new int[GameRecord.MAX_MOVES];
+        long start = System.currentTimeMillis();
+        for (int game = 0; game < games; game++) {
+            Position position = new Position();
+            int moveCount = 0;
+            while (!position.isGameOver()) {
+                long legal = position.getMoves();
+                if (legal == 0) {
+                    position.pass();
+                    continue;
+                }
+                int square;
+                if (moveCount < RANDOM_PLIES) {
+                    for (int skip = random.nextInt(Long.bitCount(legal)); skip > 0; skip--) {
+                        legal &= legal - 1;
+                    }
+                    square = Long.numberOfTrailingZeros(legal);
+                } else {
+                    Move move = search.getBestMove(position, depth);
+                    square = Position.square(move.getI(), move.getJ());
+                }
+                moves[moveCount++] = square;
+                position.play(square);
+            }
+            this.addGame(Arrays.copyOf(moves, moveCount));
+            if ((game + 1) % 100 == 0) {
+                System.out.printf("%d of %d games, %.0f s%n", game + 1, games,
+                        (System.currentTimeMillis() - start) / 1000.0);
+            }
+        }
+        search.shutdown();
+    }
+
+    /*
+     * This method adds the positions of every game of an archive.
+     */
+    public void importArchive(Path path) throws IOException {
+        try (GameRecordReader reader = new GameRecordReader(path)) {
+            GameRecord record;
+            while ((record = reader.next()) != null) {
+                this.addGame(record.getMoves());
+            }
+        }
+    }
+
+    /*
+     * This method replays a game and adds each position where the player
+     * to move has a move, labelled with how the game ended for that player.
+     */
+    public void addGame(int[] moves) {
+        Position end = GameRecord.replay(moves);
+        int blackLead = end.getBlackCount() - end.getWhiteCount();
+        boolean test = this.gameCount % TEST_EVERY == 0;
+        this.gameCount++;
+        Position position = new Position();
+        for (int square : moves) {
+            if (position.getMoves() == 0) {
+                position.pass();
+            }
+            int lead = blackLead;
+            if (position.getSideToMove() == Constants.WHITE) {
+                lead = -lead;
+            }
+            this.addSample(position.getOwn(), position.getOpp(), lead * DISC_SCALE, test);
+            position.play(square);
+        }
+    }
+
+    /*
+     * This method adds one labelled position, making room if it has to.
+     */
+    private void addSample(long own, long opp, int target, boolean test) {
+        if (this.sampleCount == this.owns.length) {
+            int size = this.owns.length * 2;
+            this.owns = Arrays.copyOf(this.owns, size);
+            this.opps = Arrays.copyOf(this.opps, size);
+            this.targets = Arrays.copyOf(this.targets, size);
+            this.tests = Arrays.copyOf(this.tests, size);
+        }
+        this.owns[this.sampleCount] = own;
+        this.opps[this.sampleCount] = opp;
+        this.targets[this.sampleCount] = (short) target;
+        this.tests[this.sampleCount] = test;
+        this.sampleCount++;
+    }
+
+    /*
+     * This method fits the weights with the given number of passes over
+     * the positions and prints how far off they are, in discs, after every
+     * tenth pass. The pattern indices of each position are worked out
+     * once and kept.
+     */
+    public PatternEvaluator train(int passes) {
+        int stages = PatternEvaluator.STAGES;
+        int patterns = PatternEvaluator.PATTERN_COUNT;
+        int[] indices = new int[this.sampleCount * patterns];
+        byte[] sampleStages = new byte[this.sampleCount];
+        int[][] counts = new int[stages][PatternEvaluator.WEIGHT_COUNT];
+        int[] stageCounts = new int[stages];
+        int[] row = new int[patterns];
+        for (int k = 0; k < this.sampleCount; k++) {
+            int stage = PatternEvaluator.getStage(Long.bitCount(~(this.owns[k] | this.opps[k])));
+            sampleStages[k] = (byte) stage;
+            PatternEvaluator.getIndices(this.owns[k], this.opps[k], row);
+            System.arraycopy(row, 0, indices, k * patterns, patterns);
+            if (!this.tests[k]) {
+                stageCounts[stage]++;
+                for (int index : row) {
+                    counts[stage][index]++;
+                }
+            }
+        }
+
+        float[][] weights = new float[stages][PatternEvaluator.WEIGHT_COUNT];
+        float[] biases = new float[stages];
+        float[][] errors = new float[stages][PatternEvaluator.WEIGHT_COUNT];
+        double[] biasErrors = new double[stages];
+        for (int pass = 1; pass <= passes; pass++) {
+            double trainError = 0;
+            double testError = 0;
+            int testCount = 0;
+            for (int k = 0; k < this.sampleCount; k++) {
+                int stage = sampleStages[k];
+                float[] stageWeights = weights[stage];
+                double value = biases[stage];
+                for (int p = k * patterns; p < (k + 1) * patterns; p++) {
+                    value += stageWeights[indices[p]];
+                }
+                double error = this.targets[k] - value;
+                if (this.tests[k]) {
+                    testError += error * error;
+                    testCount++;
+                    continue;
+                }
+                trainError += error * error;
+                biasErrors[stage] += error;
+                float[] stageErrors = errors[stage];
+                for (int p = k * patterns; p < (k + 1) * patterns; p++) {
+                    stageErrors[indices[p]] += (float) error;
+                }
+            }
+
+            for (int stage = 0; stage < stages; stage++) {
+                if (stageCounts[stage] > 0) {
+                    biases[stage] += (float) (STEP * biasErrors[stage] / stageCounts[stage]);
+                }
+                biasErrors[stage] = 0;
+                for (int index = 0; index < PatternEvaluator.WEIGHT_COUNT; index++) {
+                    int count = counts[stage][index];
+                    if (count > 0) {
+                        weights[stage][index] += (float) (STEP * errors[stage][index] / (count + SMOOTHING));
+                        errors[stage][index] = 0;
+                    }
+                }
+            }
+            if (pass % 10 == 0 || pass == passes) {
+                int trainCount = this.sampleCount - testCount;
+                System.out.printf("pass %d: off by %.2f discs on training games, %.2f on held back games%n", pass,
+                        Math.sqrt(trainError / Math.max(1, trainCount)) / DISC_SCALE,
+                        Math.sqrt(testError / Math.max(1, testCount)) / DISC_SCALE);
+            }
+        }
+
+        PatternEvaluator evaluator = new PatternEvaluator();
+        for (int stage = 0; stage < stages; stage++) {
+            evaluator.setBias(stage, Math.round(biases[stage]));
+            for (int index = 0; index < PatternEvaluator.WEIGHT_COUNT; index++) {
+                evaluator.setWeight(stage, index, Math.round(weights[stage][index]));
+            }
+        }
+        return evaluator;
+    }
+}
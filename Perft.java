@@ -0,0 +1,212 @@
+package othello;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/*
+ * This class counts the positions reached after exactly N moves (perft),
+ * to check that move generation is right and to time it. A pass counts
+ * as a move, as when Board.areNoMoves hands the turn over, and a finished
+ * game counts as one position however deep it is. From the start the
+ * counts must match REFERENCE_COUNTS. It runs without JavaFX:
+ *
+ *     java othello.Perft [depth] [divide] [threads=N] [hash=MB] [position=<text>]
+ *
+ * divide prints the count below each first move. The position is written
+ * the way Position.parse reads it; without one, perft starts from the
+ * start position. Subtrees are split between threads and, with hash,
+ * counts of positions reached more than once are kept in a table.
+ */
+public class Perft {
+    public static final long[] REFERENCE_COUNTS = {1L, 4L, 12L, 56L, 244L, 1396L, 8200L, 55092L,
+        390216L, 3005288L, 24571284L, 212258800L, 1939886636L, 18429641748L, 184042084512L};
+    private static final int PARALLEL_DEPTH = 6;
+    private static final long DEPTH_KEY = 0x9e3779b97f4a7c15L;
+
+    private final ForkJoinPool pool;
+    private final long[] keys;
+    private final long[] values;
+    private final int mask;
+
+    /*
+     * This constructor creates the threads and the table perft uses. With
+     * one thread there is no pool, and with 0 megabytes no table.
+     */
+    public Perft(int threads, int tableMegabytes) {
+        if (threads > 1) {
+            this.pool = new ForkJoinPool(threads);
+        } else {
+            this.pool = null;
+        }
+        if (tableMegabytes > 0) {
+            // 16 bytes an entry, rounded down to a power of two
+            int entries = Integer.highestOneBit((int) Math.min((long) tableMegabytes * 65536, 1 << 30));
+            this.keys = new long[entries];
+            this.values = new long[entries];
+            this.mask = entries - 1;
+        } else {
+            this.keys = null;
+            this.values = null;
+            this.mask = 0;
+        }
+    }
+
+    /*
+     * Here is the mainline!
+     */
+    public static void main(String[] argv) {
+        int depth = 9;
+        boolean divide = false;
+        int threads = 1;
+        int tableMegabytes = 0;
+        Position position = new Position();
+        boolean fromStart = true;
+        for (String arg : argv) {
+            if (arg.equals("divide")) {
+                divide = true;
+            } else if (arg.startsWith("threads=")) {
+                threads = Integer.parseInt(arg.substring("threads=".length()));
+            } else if (arg.startsWith("hash=")) {
+                tableMegabytes = Integer.parseInt(arg.substring("hash=".length()));
+            } else if (arg.startsWith("position=")) {
+                position = Position.parse(arg.substring("position=".length()));
+                fromStart = false;
+            } else {
+                depth = Integer.parseInt(arg);
+            }
+        }
+
+        Perft perft = new Perft(threads, tableMegabytes);
+        if (divide) {
+            perft.divide(position, depth);
+        } else {
+            for (int d = 1; d <= depth; d++) {
+                long start = System.nanoTime();
+                long nodes = perft.count(position, d);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                String check = "";
+                if (fromStart && d < REFERENCE_COUNTS.length) {
+                    if (nodes == REFERENCE_COUNTS[d]) {
+                        check = ", ok";
+                    } else {
+                        check = ", WRONG (expected " + REFERENCE_COUNTS[d] + ")";
+                    }
+                }
+                System.out.printf("depth %2d: %14d nodes, %8.3f s, %12.0f nodes/s%s%n",
+                        d, nodes, seconds, nodes / Math.max(seconds, 1e-9), check);
+            }
+        }
+        perft.shutdown();
+    }
+
+    /*
+     * This method prints the count below each move of the position, then
+     * the total.
+     */
+    public void divide(Position position, int depth) {
+        long start = System.nanoTime();
+        long total = 0;
+        long moves = position.getMoves();
+        if (moves == 0 || depth == 0) {
+            total = this.count(position, depth);
+        }
+        while (moves != 0 && depth > 0) {
+            int square = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+            Position child = new Position(position);
+            child.play(square);
+            long nodes = this.count(child, depth - 1);
+            System.out.println(Position.getSquareName(square) + ": " + nodes);
+            total += nodes;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("total: %d nodes, %.3f s, %.0f nodes/s%n", total, seconds,
+                total / Math.max(seconds, 1e-9));
+    }
+
+    /*
+     * This method counts the positions depth moves below the position.
+     */
+    public long count(Position position, int depth) {
+        if (this.pool == null) {
+            return this.count(new Position(position), depth, false);
+        }
+        return this.pool.invoke(ForkJoinTask.adapt(() -> this.count(new Position(position), depth, true)));
+    }
+
+    /*
+     * This method is the recursive part of count. The last move is not
+     * played, since the number of moves is already the count. If parallel
+     * is true, the moves of deep enough positions are counted by separate
+     * tasks, each on its own copy of the position.
+     */
+    private long count(Position position, int depth, boolean parallel) {
+        if (depth == 0) {
+            return 1;
+        }
+        long moves = position.getMoves();
+        if (moves == 0) {
+            // a pass, or the end of the game, is one move
+            if (depth == 1 || position.getMoves(Position.opponent(position.getSideToMove())) == 0) {
+                return 1;
+            }
+            position.makePass();
+            long nodes = this.count(position, depth - 1, parallel);
+            position.undoMove();
+            return nodes;
+        }
+        if (depth == 1) {
+            return Long.bitCount(moves);
+        }
+
+        long key = position.getHash() + depth * DEPTH_KEY;
+        if (this.keys != null) {
+            int index = (int) key & this.mask;
+            long value = this.values[index];
+            // keys are stored XORed with their value so torn writes never match
+            if ((this.keys[index] ^ value) == key) {
+                return value;
+            }
+        }
+
+        long nodes = 0;
+        if (parallel && depth >= PARALLEL_DEPTH) {
+            List<ForkJoinTask<Long>> tasks = new ArrayList<>();
+            while (moves != 0) {
+                int square = Long.numberOfTrailingZeros(moves);
+                moves &= moves - 1;
+                Position child = new Position(position);
+                child.play(square);
+                tasks.add(ForkJoinTask.adapt(() -> this.count(child, depth - 1, true)));
+            }
+            for (ForkJoinTask<Long> task : ForkJoinTask.invokeAll(tasks)) {
+                nodes += task.join();
+            }
+        } else {
+            while (moves != 0) {
+                position.makeMove(Long.numberOfTrailingZeros(moves));
+                nodes += this.count(position, depth - 1, parallel);
+                position.undoMove();
+                moves &= moves - 1;
+            }
+        }
+
+        if (this.keys != null) {
+            int index = (int) key & this.mask;
+            this.keys[index] = key ^ nodes;
+            this.values[index] = nodes;
+        }
+        return nodes;
+    }
+
+    /*
+     * This method shuts down the threads once perft is done.
+     */
+    public void shutdown() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+}
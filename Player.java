@@ -27,4 +27,9 @@ public interface Player {
      * Ends the Player's turn.
      */
     void endTurn();
+
+    /*
+     * Stops the Player when its game is replaced.
+     */
+    void stop();
 }
@@ -0,0 +1,512 @@
+package othello;
+
+/*
+ * This is the Position class. It is the logical board that the computer
+ * player searches on. Each color is stored as a 64-bit mask (bit
+ * (row - 1) * 8 + (col - 1) for the playable squares 1-8) together with the
+ * color whose turn it is, so moves and flips are found with bitwise shifts
+ * instead of walking SmartSquares. The search plays moves with makeMove and
+ * takes them back with undoMove, so one Position serves a whole search.
+ */
+public class Position {
+    private static final long NOT_FIRST_COL = 0xfefefefefefefefeL;
+    private static final long NOT_LAST_COL = 0x7f7f7f7f7f7f7f7fL;
+    private static final int[] DIRECTIONS = {-9, -8, -7, -1, 1, 7, 8, 9};
+    // 60 moves and a pass before each of them is more than any game has
+    private static final int MAX_UNDO = 128;
+    private static final int PASS = -1;
+    private static final int[] SQUARE_WEIGHTS = new int[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARE_WEIGHTS[square] = Constants.MOVE_WEIGHTS[getRow(square)][getCol(square)];
+        }
+    }
+
+    private long black;
+    private long white;
+    private int sideToMove;
+    private long hash;
+    private int weightScore;
+    private long[] undoFlips;
+    private long[] undoHashes;
+    private int[] undoScores;
+    private int[] undoSquares;
+    private int undoCount;
+
+    /*
+     * This constructor sets up the four starting pieces with black to move.
+     */
+    public Position() {
+        this.black = (1L << square(4, 4)) | (1L << square(5, 5));
+        this.white = (1L << square(4, 5)) | (1L << square(5, 4));
+        this.sideToMove = Constants.BLACK;
+        this.hash = Zobrist.hash(this.black, this.white, this.sideToMove);
+        this.weightScore = this.countWeights();
+    }
+
+    /*
+     * This constructor sets the instance variables equal to what was passed through.
+     */
+    public Position(long black, long white, int sideToMove) {
+        this.black = black;
+        this.white = white;
+        this.sideToMove = sideToMove;
+        this.hash = Zobrist.hash(black, white, sideToMove);
+        this.weightScore = this.countWeights();
+    }
+
+    /*
+     * This is the copy constructor.
+     */
+    public Position(Position position) {
+        this.black = position.black;
+        this.white = position.white;
+        this.sideToMove = position.sideToMove;
+        this.hash = position.hash;
+        this.weightScore = position.weightScore;
+    }
+
+    /*
+     * This method turns board coordinates (1-8) into a bit index.
+     */
+    public static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /*
+     * This method gets the board row (1-8) of a bit index.
+     */
+    public static int getRow(int square) {
+        return square / 8 + 1;
+    }
+
+    /*
+     * This method gets the board column (1-8) of a bit index.
+     */
+    public static int getCol(int square) {
+        return square % 8 + 1;
+    }
+
+    /*
+     * This method names a square the standard way, like "f5". Standard
+     * boards start with the white pieces on d4 and e5, which is this board
+     * flipped left to right, so the letter counts columns from the right.
+     */
+    public static String getSquareName(int square) {
+        return "" + (char) ('a' + 8 - getCol(square)) + getRow(square);
+    }
+
+    /*
+     * This method reads a square named the standard way. It returns -1 if
+     * the name is not a square.
+     */
+    public static int parseSquare(String name) {
+        if (name.length() != 2) {
+            return -1;
+        }
+        int col = Character.toLowerCase(name.charAt(0)) - 'a' + 1;
+        int row = name.charAt(1) - '0';
+        if (col < 1 || col > 8 || row < 1 || row > 8) {
+            return -1;
+        }
+        return square(row, 9 - col);
+    }
+
+    /*
+     * This method reads a position written as 64 squares, a1 to h8 row by
+     * row, with X for black, O for white and - for empty, then X or O for
+     * the player to move. It throws an IllegalArgumentException if the
+     * text is not a position.
+     */
+    public static Position parse(String text) {
+        text = text.replaceAll("\\s", "");
+        if (text.length() != 65) {
+            throw new IllegalArgumentException("a position needs 64 squares and a side to move: " + text);
+        }
+        long black = 0;
+        long white = 0;
+        for (int k = 0; k < 64; k++) {
+            long bit = 1L << square(k / 8 + 1, 8 - k % 8);
+            switch (Character.toUpperCase(text.charAt(k))) {
+                case 'X', '*', 'B' -> black |= bit;
+                case 'O', 'W' -> white |= bit;
+                case '-', '.' -> {
+                }
+                default -> throw new IllegalArgumentException("not a square: " + text.charAt(k));
+            }
+        }
+        char side = Character.toUpperCase(text.charAt(64));
+        if (side == 'X' || side == '*' || side == 'B') {
+            return new Position(black, white, Constants.BLACK);
+        } else if (side == 'O' || side == 'W') {
+            return new Position(black, white, Constants.WHITE);
+        }
+        throw new IllegalArgumentException("not a side to move: " + side);
+    }
+
+    /*
+     * This method writes the position the way parse reads it.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int k = 0; k < 64; k++) {
+            long bit = 1L << square(k / 8 + 1, 8 - k % 8);
+            if ((this.black & bit) != 0) {
+                text.append('X');
+            } else if ((this.white & bit) != 0) {
+                text.append('O');
+            } else {
+                text.append('-');
+            }
+        }
+        if (this.sideToMove == Constants.BLACK) {
+            text.append('X');
+        } else {
+            text.append('O');
+        }
+        return text.toString();
+    }
+
+    /*
+     * This method returns the other color.
+     */
+    public static int opponent(int color) {
+        if (color == Constants.BLACK) {
+            return Constants.WHITE;
+        }
+        return Constants.BLACK;
+    }
+
+    /*
+     * This method shifts every piece of a mask one step in a direction,
+     * dropping the pieces that would wrap around to the other side.
+     */
+    private static long shift(long pieces, int direction) {
+        long shifted;
+        if (direction > 0) {
+            shifted = pieces << direction;
+        } else {
+            shifted = pieces >>> -direction;
+        }
+        int colStep = Math.floorMod(direction + 4, 8) - 4;
+        if (colStep == 1) {
+            return shifted & NOT_FIRST_COL;
+        } else if (colStep == -1) {
+            return shifted & NOT_LAST_COL;
+        }
+        return shifted;
+    }
+
+    /*
+     * This method finds every empty square where the own pieces would
+     * sandwich a line of opponent pieces.
+     */
+    public static long findMoves(long own, long opp) {
+        long empty = ~(own | opp);
+        long moves = 0;
+        for (int direction : DIRECTIONS) {
+            long line = shift(own, direction) & opp;
+            for (int k = 0; k < 5; k++) {
+                line |= shift(line, direction) & opp;
+            }
+            moves |= shift(line, direction) & empty;
+        }
+        return moves;
+    }
+
+    /*
+     * This method finds the opponent pieces that would be flipped by a
+     * piece placed on the square. It returns 0 if the move is not valid.
+     */
+    public static long findFlips(long own, long opp, int square) {
+        long flips = 0;
+        for (int direction : DIRECTIONS) {
+            long line = 0;
+            long next = shift(1L << square, direction);
+            while ((next & opp) != 0) {
+                line |= next;
+                next = shift(next, direction);
+            }
+            if ((next & own) != 0) {
+                flips |= line;
+            }
+        }
+        return flips;
+    }
+
+    /*
+     * This method gets the valid moves of the player whose turn it is.
+     */
+    public long getMoves() {
+        return findMoves(this.getOwn(), this.getOpp());
+    }
+
+    /*
+     * This method gets the valid moves of a specific color.
+     */
+    public long getMoves(int color) {
+        if (color == Constants.BLACK) {
+            return findMoves(this.black, this.white);
+        }
+        return findMoves(this.white, this.black);
+    }
+
+    /*
+     * This method gets the pieces a color would flip by moving on the square.
+     */
+    public long getFlips(int square, int color) {
+        if ((this.getEmpty() & (1L << square)) == 0) {
+            return 0;
+        }
+        if (color == Constants.BLACK) {
+            return findFlips(this.black, this.white, square);
+        }
+        return findFlips(this.white, this.black, square);
+    }
+
+    /*
+     * This method places a piece of the given color, flips the sandwiched
+     * pieces and hands the turn to the other color, updating the hash and
+     * the weight score as it goes. It returns the mask of flipped pieces, which is 0 (and
+     * changes nothing) if the move is not valid.
+     */
+    public long place(int square, int color) {
+        long flips = this.getFlips(square, color);
+        if (flips == 0) {
+            return 0;
+        }
+        long placed = 1L << square;
+        if (color == Constants.BLACK) {
+            this.black |= flips | placed;
+            this.white &= ~flips;
+        } else {
+            this.white |= flips | placed;
+            this.black &= ~flips;
+        }
+        // a flipped piece's weight moves from one side to the other
+        int change = SQUARE_WEIGHTS[square];
+        this.hash ^= Zobrist.getPieceKey(color, square);
+        long flipped = flips;
+        while (flipped != 0) {
+            int flippedSquare = Long.numberOfTrailingZeros(flipped);
+            this.hash ^= Zobrist.getFlipKey(flippedSquare);
+            change += 2 * SQUARE_WEIGHTS[flippedSquare];
+            flipped &= flipped - 1;
+        }
+        if (color == Constants.BLACK) {
+            this.weightScore += change;
+        } else {
+            this.weightScore -= change;
+        }
+        this.setSideToMove(opponent(color));
+        return flips;
+    }
+
+    /*
+     * This method plays a move for the player whose turn it is.
+     */
+    public long play(int square) {
+        return this.place(square, this.sideToMove);
+    }
+
+    /*
+     * This method hands the turn over without placing a piece.
+     */
+    public void pass() {
+        this.setSideToMove(opponent(this.sideToMove));
+    }
+
+    /*
+     * This method plays a move for the player whose turn it is and
+     * remembers the flipped pieces so undoMove can take it back.
+     */
+    public void makeMove(int square) {
+        long oldHash = this.hash;
+        int oldScore = this.weightScore;
+        this.pushUndo(this.play(square), square, oldHash, oldScore);
+    }
+
+    /*
+     * This method passes the turn so that undoMove can take it back.
+     */
+    public void makePass() {
+        this.pushUndo(0, PASS, this.hash, this.weightScore);
+        this.pass();
+    }
+
+    /*
+     * This method takes back the last makeMove or makePass.
+     */
+    public void undoMove() {
+        this.undoCount--;
+        int square = this.undoSquares[this.undoCount];
+        int mover = opponent(this.sideToMove);
+        if (square != PASS) {
+            long flips = this.undoFlips[this.undoCount];
+            if (mover == Constants.BLACK) {
+                this.black ^= flips | (1L << square);
+                this.white ^= flips;
+            } else {
+                this.white ^= flips | (1L << square);
+                this.black ^= flips;
+            }
+        }
+        this.sideToMove = mover;
+        this.hash = this.undoHashes[this.undoCount];
+        this.weightScore = this.undoScores[this.undoCount];
+    }
+
+    /*
+     * This method records what undoMove needs. The stack is only made
+     * the first time, so copies that never search stay small.
+     */
+    private void pushUndo(long flips, int square, long oldHash, int oldScore) {
+        if (this.undoSquares == null) {
+            this.undoFlips = new long[MAX_UNDO];
+            this.undoHashes = new long[MAX_UNDO];
+            this.undoScores = new int[MAX_UNDO];
+            this.undoSquares = new int[MAX_UNDO];
+        }
+        this.undoFlips[this.undoCount] = flips;
+        this.undoSquares[this.undoCount] = square;
+        this.undoHashes[this.undoCount] = oldHash;
+        this.undoScores[this.undoCount] = oldScore;
+        this.undoCount++;
+    }
+
+    /*
+     * This method checks if neither player has a valid move.
+     */
+    public boolean isGameOver() {
+        return findMoves(this.black, this.white) == 0 && findMoves(this.white, this.black) == 0;
+    }
+
+    /*
+     * This method gets the board score of a color using the move weights
+     * provided to us. The score is kept up to date as pieces are placed
+     * and flipped, so this does not look at the board. With assertions
+     * on (java -ea) it is checked against a full recount.
+     */
+    public int evaluate(int color) {
+        assert this.weightScore == this.countWeights() : "weight score out of date";
+        if (color == Constants.BLACK) {
+            return this.weightScore;
+        }
+        return -this.weightScore;
+    }
+
+    /*
+     * This method adds up the weights of every piece on the board, black
+     * positive and white negative.
+     */
+    private int countWeights() {
+        int boardScore = 0;
+        long pieces = this.black;
+        while (pieces != 0) {
+            boardScore += SQUARE_WEIGHTS[Long.numberOfTrailingZeros(pieces)];
+            pieces &= pieces - 1;
+        }
+        pieces = this.white;
+        while (pieces != 0) {
+            boardScore -= SQUARE_WEIGHTS[Long.numberOfTrailingZeros(pieces)];
+            pieces &= pieces - 1;
+        }
+        return boardScore;
+    }
+
+    /*
+     * This method gets the color of the piece on a square, or
+     * Constants.EMPTY if there is none.
+     */
+    public int getPiece(int row, int col) {
+        long bit = 1L << square(row, col);
+        if ((this.black & bit) != 0) {
+            return Constants.BLACK;
+        } else if ((this.white & bit) != 0) {
+            return Constants.WHITE;
+        }
+        return Constants.EMPTY;
+    }
+
+    /*
+     * This getter method gets the pieces of the player whose turn it is.
+     */
+    public long getOwn() {
+        if (this.sideToMove == Constants.BLACK) {
+            return this.black;
+        }
+        return this.white;
+    }
+
+    /*
+     * This getter method gets the pieces of the player waiting for their turn.
+     */
+    public long getOpp() {
+        if (this.sideToMove == Constants.BLACK) {
+            return this.white;
+        }
+        return this.black;
+    }
+
+    /*
+     * This getter method gets the empty squares.
+     */
+    public long getEmpty() {
+        return ~(this.black | this.white);
+    }
+
+    /*
+     * This getter method gets the black pieces.
+     */
+    public long getBlack() {
+        return this.black;
+    }
+
+    /*
+     * This getter method gets the white pieces.
+     */
+    public long getWhite() {
+        return this.white;
+    }
+
+    /*
+     * This getter method gets the number of black pieces. The piece masks
+     * are always up to date, so counting them is one bitCount.
+     */
+    public int getBlackCount() {
+        return Long.bitCount(this.black);
+    }
+
+    /*
+     * This getter method gets the number of white pieces.
+     */
+    public int getWhiteCount() {
+        return Long.bitCount(this.white);
+    }
+
+    /*
+     * This getter method gets whose turn it is.
+     */
+    public int getSideToMove() {
+        return this.sideToMove;
+    }
+
+    /*
+     * This setter method sets whose turn it is.
+     */
+    public void setSideToMove(int sideToMove) {
+        if (sideToMove != this.sideToMove) {
+            this.hash ^= Zobrist.getSideKey();
+            this.sideToMove = sideToMove;
+        }
+    }
+
+    /*
+     * This getter method gets the Zobrist hash of the position.
+     */
+    public long getHash() {
+        return this.hash;
+    }
+}
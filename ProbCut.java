@@ -0,0 +1,202 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * This is the ProbCut class. It holds what Multi-ProbCut needs to guess
+ * the value of a deep search from a shallow one. For every game stage
+ * (STAGE_EMPTIES empty squares wide) and every depth it keeps the
+ * shallow depth to search and the line deep = slope * shallow +
+ * intercept, with the standard deviation of how far deep searches were
+ * from it. A node whose shallow value is far enough outside its window
+ * that the deep value is very unlikely to be inside is cut off without
+ * the deep search. ProbCutCalibrator fits the lines and writes the file.
+ *
+ * File layout (big-endian): a header of MAGIC, VERSION and the entry
+ * count as ints, then per entry the stage, the depth and the shallow
+ * depth (bytes), one unused byte, and the slope, intercept and standard
+ * deviation (floats).
+ */
+public class ProbCut {
+    public static final int MAGIC = 0x4f504331;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 12;
+    public static final int ENTRY_BYTES = 16;
+    public static final int STAGE_EMPTIES = 4;
+    public static final int STAGES = 64 / STAGE_EMPTIES + 1;
+    // the shallowest node that is worth a shallow search, and the deepest with a line
+    public static final int MIN_DEPTH = 3;
+    public static final int MAX_DEPTH = 20;
+
+    private static ProbCut defaultProbCut;
+    private static boolean defaultLoaded;
+
+    // by stage and depth; a shallow depth of 0 means there is no line
+    private final int[][] shallowDepths = new int[STAGES][MAX_DEPTH + 1];
+    private final float[][] slopes = new float[STAGES][MAX_DEPTH + 1];
+    private final float[][] intercepts = new float[STAGES][MAX_DEPTH + 1];
+    private final float[][] deviations = new float[STAGES][MAX_DEPTH + 1];
+
+    /*
+     * This constructor creates a ProbCut with no lines, which cuts nothing.
+     */
+    public ProbCut() {
+    }
+
+    /*
+     * This constructor reads the lines from a file and checks its header.
+     */
+    public ProbCut(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException(path + " is not a ProbCut file");
+        }
+        int entryCount = buffer.getInt();
+        if ((long) HEADER_BYTES + (long) entryCount * ENTRY_BYTES > buffer.capacity()) {
+            throw new IOException(path + " is cut short");
+        }
+        for (int k = 0; k < entryCount; k++) {
+            int stage = buffer.get();
+            int depth = buffer.get();
+            int shallowDepth = buffer.get();
+            buffer.get();
+            float slope = buffer.getFloat();
+            float intercept = buffer.getFloat();
+            float deviation = buffer.getFloat();
+            if (stage < 0 || stage >= STAGES || depth < MIN_DEPTH || depth > MAX_DEPTH) {
+                throw new IOException(path + " has a line for stage " + stage + " and depth " + depth);
+            }
+            this.putLine(stage, depth, shallowDepth, slope, intercept, deviation);
+        }
+    }
+
+    /*
+     * This method gets the lines in Constants.PROBCUT_FILE, loading them
+     * the first time. It returns null if there is no file, so the search
+     * stays full width.
+     */
+    public static synchronized ProbCut getDefault() {
+        if (!defaultLoaded) {
+            defaultLoaded = true;
+            Path path = Path.of(Constants.PROBCUT_FILE);
+            if (Files.exists(path)) {
+                try {
+                    defaultProbCut = new ProbCut(path);
+                } catch (IOException e) {
+                    System.err.println("could not read the ProbCut file: " + e.getMessage());
+                }
+            }
+        }
+        return defaultProbCut;
+    }
+
+    /*
+     * This method gets the stage of a position with the given number of
+     * empty squares.
+     */
+    public static int getStage(int empties) {
+        return empties / STAGE_EMPTIES;
+    }
+
+    /*
+     * This method gets the shallow depth that predicts a depth: about
+     * half of it, with the same parity, since the evaluation swings
+     * between odd and even depths.
+     */
+    public static int getDefaultShallowDepth(int depth) {
+        return depth % 2 + depth / 4 * 2;
+    }
+
+    /*
+     * This setter method sets the line of a stage and depth. A slope
+     * that is not positive leaves the depth without a line.
+     */
+    public void setLine(int stage, int depth, int shallowDepth, float slope, float intercept, float deviation) {
+        this.putLine(stage, depth, shallowDepth, slope, intercept, deviation);
+    }
+
+    /*
+     * This method does the work of setLine, which the constructor cannot
+     * call since a subclass could override it.
+     */
+    private void putLine(int stage, int depth, int shallowDepth, float slope, float intercept, float deviation) {
+        if (slope <= 0 || shallowDepth <= 0 || shallowDepth >= depth) {
+            shallowDepth = 0;
+        }
+        this.shallowDepths[stage][depth] = shallowDepth;
+        this.slopes[stage][depth] = slope;
+        this.intercepts[stage][depth] = intercept;
+        this.deviations[stage][depth] = deviation;
+    }
+
+    /*
+     * This getter method gets the shallow depth to search for a node with
+     * the given empty squares and depth left, or 0 if there is no line.
+     */
+    public int getShallowDepth(int empties, int depth) {
+        if (depth < MIN_DEPTH || depth > MAX_DEPTH) {
+            return 0;
+        }
+        return this.shallowDepths[getStage(empties)][depth];
+    }
+
+    /*
+     * This method gets the shallow value at or above which the deep
+     * value is at least beta, with the confidence given as a number of
+     * standard deviations.
+     */
+    public int getHighBound(int empties, int depth, int beta, double confidence) {
+        int stage = getStage(empties);
+        double bound = (beta - this.intercepts[stage][depth] + confidence * this.deviations[stage][depth])
+                / this.slopes[stage][depth];
+        return (int) Math.ceil(bound);
+    }
+
+    /*
+     * This method gets the shallow value at or below which the deep
+     * value is at most alpha, with the confidence given as a number of
+     * standard deviations.
+     */
+    public int getLowBound(int empties, int depth, int alpha, double confidence) {
+        int stage = getStage(empties);
+        double bound = (alpha - this.intercepts[stage][depth] - confidence * this.deviations[stage][depth])
+                / this.slopes[stage][depth];
+        return (int) Math.floor(bound);
+    }
+
+    /*
+     * This method writes the lines to a file and returns how many there are.
+     */
+    public int write(Path path) throws IOException {
+        int entryCount = 0;
+        for (int stage = 0; stage < STAGES; stage++) {
+            for (int depth = MIN_DEPTH; depth <= MAX_DEPTH; depth++) {
+                if (this.shallowDepths[stage][depth] > 0) {
+                    entryCount++;
+                }
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + entryCount * ENTRY_BYTES);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(entryCount);
+        for (int stage = 0; stage < STAGES; stage++) {
+            for (int depth = MIN_DEPTH; depth <= MAX_DEPTH; depth++) {
+                if (this.shallowDepths[stage][depth] > 0) {
+                    buffer.put((byte) stage);
+                    buffer.put((byte) depth);
+                    buffer.put((byte) this.shallowDepths[stage][depth]);
+                    buffer.put((byte) 0);
+                    buffer.putFloat(this.slopes[stage][depth]);
+                    buffer.putFloat(this.intercepts[stage][depth]);
+                    buffer.putFloat(this.deviations[stage][depth]);
+                }
+            }
+        }
+        Files.write(path, buffer.array());
+        return entryCount;
+    }
+}
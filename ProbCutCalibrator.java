@@ -0,0 +1,192 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+
+/*
+ * This class fits the lines Multi-ProbCut uses and writes them to the
+ * file ProbCut reads. It searches every position of a corpus to the
+ * deepest depth, noting the value of each depth on the way, and for
+ * every stage and depth fits the depth's value against the value of
+ * its shallow depth by least squares. The corpus is either positions
+ * from random games, spread from the opening to the endgame, or a
+ * sample of the positions of a game record archive (see GameArchive).
+ * The search is full width while calibrating, and values leaves the way
+ * the engine does, so calibrate again after training new pattern
+ * weights. It runs without JavaFX:
+ *
+ *     java othello.ProbCutCalibrator <file> random [positions] [depth] [seed]
+ *     java othello.ProbCutCalibrator <file> archive <games.ogr> [positions] [depth] [seed]
+ *
+ * Use the file by copying it to Constants.PROBCUT_FILE.
+ */
+public class ProbCutCalibrator {
+    private static final int MIN_SAMPLES = 30;
+    private static final int MIN_PLIES = 4;
+    private static final int MIN_EMPTIES = 6;
+    private static final int SUMS = 6;
+
+    // by stage and depth: count, sum of x, y, x * x, x * y and y * y,
+    // where x is the shallow value and y the deep one
+    private final double[][][] sums = new double[ProbCut.STAGES][ProbCut.MAX_DEPTH + 1][SUMS];
+    private final int maxDepth;
+
+    /*
+     * This constructor sets the deepest depth to fit a line for.
+     */
+    public ProbCutCalibrator(int maxDepth) {
+        this.maxDepth = Math.min(maxDepth, ProbCut.MAX_DEPTH);
+    }
+
+    /*
+     * Here is the mainline!
+     */
+    public static void main(String[] argv) throws IOException {
+        if (argv.length < 2 || (argv[1].equals("archive") && argv.length < 3)) {
+            System.out.println("usage: ProbCutCalibrator <file> random [positions] [depth] [seed]");
+            System.out.println("       ProbCutCalibrator <file> archive <games.ogr> [positions] [depth] [seed]");
+            return;
+        }
+        int first = 2;
+        if (argv[1].equals("archive")) {
+            first = 3;
+        }
+        int positionCount = 1000;
+        int depth = 8;
+        long seed = 1;
+        if (argv.length > first) {
+            positionCount = Integer.parseInt(argv[first]);
+        }
+        if (argv.length > first + 1) {
+            depth = Integer.parseInt(argv[first + 1]);
+        }
+        if (argv.length > first + 2) {
+            seed = Long.parseLong(argv[first + 2]);
+        }
+
+        ArrayList<Position> positions;
+        if (argv[1].equals("archive")) {
+            positions = samplePositions(Path.of(argv[2]), positionCount, seed);
+        } else {
+            positions = SearchSpeedup.makePositions(positionCount, seed, MIN_PLIES, 60 - MIN_EMPTIES);
+        }
+        ProbCutCalibrator calibrator = new ProbCutCalibrator(depth);
+        calibrator.searchPositions(positions, seed);
+        ProbCut probCut = calibrator.fit();
+        int lines = probCut.write(Path.of(argv[0]));
+        System.out.println(positions.size() + " positions, " + lines + " lines written to " + argv[0]);
+    }
+
+    /*
+     * This method picks count positions at random from the games of an
+     * archive (reservoir sampling, so the archive is read only once).
+     * Only positions with a choice of moves and at least MIN_EMPTIES
+     * empty squares are taken.
+     */
+    public static ArrayList<Position> samplePositions(Path path, int count, long seed) throws IOException {
+        Random random = new Random(seed);
+        ArrayList<Position> positions = new ArrayList<>();
+        long seen = 0;
+        try (GameRecordReader reader = new GameRecordReader(path)) {
+            GameRecord record;
+            while ((record = reader.next()) != null) {
+                Position position = new Position();
+                for (int square : record.getMoves()) {
+                    if (position.getMoves() == 0) {
+                        position.pass();
+                    }
+                    if (Long.bitCount(position.getEmpty()) >= MIN_EMPTIES
+                            && Long.bitCount(position.getMoves()) > 1) {
+                        seen++;
+                        if (positions.size() < count) {
+                            positions.add(new Position(position));
+                        } else {
+                            long slot = (long) (random.nextDouble() * seen);
+                            if (slot < count) {
+                                positions.set((int) slot, new Position(position));
+                            }
+                        }
+                    }
+                    position.play(square);
+                }
+            }
+        }
+        return positions;
+    }
+
+    /*
+     * This method searches every position to the deepest depth and adds
+     * up each depth's value against its shallow depth's value. Values of
+     * won or lost positions say nothing about the evaluation and are left out.
+     */
+    public void searchPositions(ArrayList<Position> positions, long seed) {
+        Search search = new Search(Constants.TABLE_MEGABYTES, 1, new Random(seed));
+        // the midgame search is calibrated, so it is used however few squares are empty
+        search.setEndgameEmpties(0);
+        search.setWinLossDrawEmpties(0);
+        search.setEvaluator(PatternEvaluator.getDefault());
+        int[] values = new int[this.maxDepth + 1];
+        search.setListener(stats -> values[stats.getDepth()] = stats.getScore());
+        long start = System.currentTimeMillis();
+        for (int k = 0; k < positions.size(); k++) {
+            Position position = positions.get(k);
+            search.getTable().clear();
+            search.getBestMove(position, this.maxDepth);
+            int stage = ProbCut.getStage(Long.bitCount(position.getEmpty()));
+            for (int depth = ProbCut.MIN_DEPTH; depth <= Math.min(this.maxDepth, search.getCompletedDepth());
+                    depth++) {
+                int x = values[ProbCut.getDefaultShallowDepth(depth)];
+                int y = values[depth];
+                if (Math.abs(x) >= Constants.HIGH_VAL || Math.abs(y) >= Constants.HIGH_VAL) {
+                    continue;
+                }
+                double[] depthSums = this.sums[stage][depth];
+                depthSums[0]++;
+                depthSums[1] += x;
+                depthSums[2] += y;
+                depthSums[3] += (double) x * x;
+                depthSums[4] += (double) x * y;
+                depthSums[5] += (double) y * y;
+            }
+            if ((k + 1) % 100 == 0) {
+                System.out.printf("%d of %d positions, %.0f s%n", k + 1, positions.size(),
+                        (System.currentTimeMillis() - start) / 1000.0);
+            }
+        }
+        search.shutdown();
+    }
+
+    /*
+     * This method fits a line for every stage and depth with at least
+     * MIN_SAMPLES values and prints each with how well the shallow value
+     * predicts the deep one (the correlation).
+     */
+    public ProbCut fit() {
+        ProbCut probCut = new ProbCut();
+        System.out.println("stage empties depth shallow samples   slope intercept  deviation  correlation");
+        for (int stage = 0; stage < ProbCut.STAGES; stage++) {
+            for (int depth = ProbCut.MIN_DEPTH; depth <= this.maxDepth; depth++) {
+                double[] s = this.sums[stage][depth];
+                double n = s[0];
+                double xVariance = n * s[3] - s[1] * s[1];
+                double yVariance = n * s[5] - s[2] * s[2];
+                if (n < MIN_SAMPLES || xVariance <= 0 || yVariance <= 0) {
+                    continue;
+                }
+                double slope = (n * s[4] - s[1] * s[2]) / xVariance;
+                double intercept = (s[2] - slope * s[1]) / n;
+                double squaredError = s[5] - intercept * s[2] - slope * s[4];
+                double deviation = Math.sqrt(Math.max(squaredError, 0) / (n - 2));
+                double correlation = (n * s[4] - s[1] * s[2]) / Math.sqrt(xVariance * yVariance);
+                int shallowDepth = ProbCut.getDefaultShallowDepth(depth);
+                probCut.setLine(stage, depth, shallowDepth, (float) slope, (float) intercept, (float) deviation);
+                System.out.printf("%5d %3d-%-3d %5d %7d %7d %7.3f %9.1f %10.1f %12.3f%n", stage,
+                        stage * ProbCut.STAGE_EMPTIES, stage * ProbCut.STAGE_EMPTIES + ProbCut.STAGE_EMPTIES - 1,
+                        depth, shallowDepth, (int) n, slope, intercept, deviation, correlation);
+            }
+        }
+        return probCut;
+    }
+}
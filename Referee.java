@@ -1,76 +1,100 @@
 package othello;
 
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.event.ActionEvent;
+import javafx.animation.PauseTransition;
 import javafx.scene.paint.Color;
 import javafx.util.Duration;
 
 /*
- * This class handles the logic behind the game and
- * turn taking through a Timeline.
+ * This class handles the logic behind the game and the turn taking.
+ * Turns are driven by events: when a player ends its turn, the referee
+ * checks for game over and hands the turn straight to the next player,
+ * or back to the same one if the other has to pass. The only wait is an
+ * optional delay, so a game between two computers can be watched. A
+ * Referee runs one game, from start() until the game ends or stopGame()
+ * is called, and ignores its players after that.
  */
 public class Referee {
-    private Timeline timeline;
     private final Board board;
     private final Controls controls;
+    private final long delayMillis;
     private Player currPlayer;
     private Player nextPlayer;
+    private PauseTransition delay;
+    private boolean started;
+    private boolean stopped;
 
     /*
      * The constructor sets the instance variables equal to what was passed through.
-     * It also calls the timeline starting method.
+     * Black moves first. Each turn starts delayMillis after the last one
+     * ended, or at once if it is 0.
      */
-    public Referee(Controls controls, Player playerWhite, Player playerBlack, Board board) {
-        this.currPlayer = playerWhite;
-        this.nextPlayer = playerBlack;
+    public Referee(Controls controls, Player playerWhite, Player playerBlack, Board board, long delayMillis) {
+        this.currPlayer = playerBlack;
+        this.nextPlayer = playerWhite;
         this.board = board;
         this.controls = controls;
+        this.delayMillis = delayMillis;
         this.controls.setReferee(this);
-        this.turnTaking();
     }
 
     /*
-     * This method starts the turn taking for the game by
-     * creating a timeline. This helps to delay computer moves.
+     * This method starts the game by giving black its first turn. It
+     * only does anything the first time it is called.
      */
-    public void turnTaking() {
-        KeyFrame kf = new KeyFrame(Duration.seconds(.01), (ActionEvent e) -> this.updateTimeline());
-        this.timeline = new Timeline(kf);
-        this.timeline.setCycleCount(Animation.INDEFINITE);
-        this.timeline.play();
-    }
-
-    /*
-     * This method is called on every tick of the timeline.
-     * It stops the timeline and calls the next player to
-     * make a move.
-     */
-    public void updateTimeline() {
-        this.timeline.stop();
-        Player tempPlayer = this.currPlayer;
-        this.currPlayer = this.nextPlayer;
-        this.nextPlayer = tempPlayer;
+    public void start() {
+        if (this.started || this.stopped) {
+            return;
+        }
+        this.started = true;
         this.currPlayer.makeMove();
     }
 
     /*
-     * This method calls to set scores and checks for game over. Then it
-     * starts the timeline/game again.
+     * This method is called when a player ends its turn. It updates the
+     * scores, ends the game if neither player can move and otherwise
+     * starts the next turn. A player with no move passes, so the player
+     * who just moved goes again.
      */
     public void turnEnd() {
-        this.setScores();
+        if (this.stopped) {
+            return;
+        }
         this.board.unHighlightMoves();
+        if (!this.board.areNoMoves(this.nextPlayer.getPlayerColor(), false)) {
+            Player tempPlayer = this.currPlayer;
+            this.currPlayer = this.nextPlayer;
+            this.nextPlayer = tempPlayer;
+        }
+        this.setScores();
         if (this.board.checkGameOver(false, this.currPlayer.getPlayerColor(), this.nextPlayer.getPlayerColor())) {
+            this.stopped = true;
             this.controls.setWinner();
-            this.timeline.stop();
         } else {
-            this.timeline.play();
+            this.scheduleTurn();
         }
     }
 
+    /*
+     * This method starts the turn of the current player, after the delay
+     * if there is one.
+     */
+    private void scheduleTurn() {
+        if (this.delayMillis <= 0) {
+            this.currPlayer.makeMove();
+            return;
+        }
+        Player player = this.currPlayer;
+        this.delay = new PauseTransition(Duration.millis(this.delayMillis));
+        this.delay.setOnFinished(e -> {
+            this.delay = null;
+            if (!this.stopped) {
+                player.makeMove();
+            }
+        });
+        this.delay.play();
+    }
+
     /*
      * This method sets the scores and calls for the controls to
      * update the labels.
@@ -81,10 +105,18 @@ public class Referee {
     }
 
     /*
-     * This method stops the timeline.
+     * This method ends the game for good. It cancels a turn that is
+     * waiting for its delay and stops both players, cancelling a
+     * computer move that is being searched.
      */
-    public void stopTimeline() {
-        this.timeline.stop();
+    public void stopGame() {
+        this.stopped = true;
+        if (this.delay != null) {
+            this.delay.stop();
+            this.delay = null;
+        }
+        this.currPlayer.stop();
+        this.nextPlayer.stop();
     }
 
     /*
@@ -93,9 +125,9 @@ public class Referee {
      */
     public String getTurn() {
         if (this.currPlayer.getPlayerColor() == Color.BLACK) {
-            return "White";
-        } else {
             return "Black";
+        } else {
+            return "White";
         }
     }
 }
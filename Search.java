@@ -0,0 +1,897 @@
+package othello;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/*
+ * This is the Search class. It holds the miniMax algorithm that the
+ * ComputerPlayer uses to find its move. The search deepens one ply at a
+ * time until its time or node budget runs out and plays the best move of
+ * the last depth it finished. With more than one thread, the moves at the
+ * root (and, with Young Brothers Wait, the moves one ply below) are split
+ * between the threads of a ForkJoinPool. In Lazy SMP mode the other
+ * threads instead run the same search as helpers, a ply apart, and only
+ * share what they find through the transposition table. Near the end of
+ * the game the EndgameSolver takes over. Besides the table's best move
+ * (which can be turned off to measure what it gains), moves are ordered by two killer moves per ply (moves that recently
+ * caused a cutoff at the same distance from the root) and a history
+ * table of how often each side's move to each square caused a cutoff,
+ * halved before every search so old games fade. Moves after the first
+ * are searched with a null window first (Principal Variation Search),
+ * and every depth starts with an aspiration window around the value of
+ * the one before. With a ProbCut, shallow searches predict which deep
+ * ones would fall outside their window so they can be skipped
+ * (Multi-ProbCut). Leaves are valued by the PatternEvaluator if there
+ * is one, otherwise by the square weights. After every depth it
+ * makes SearchStats for whoever listens. It only works on Positions, so it
+ * does not need JavaFX.
+ */
+public class Search {
+    // the most moves from the root a search reaches, not counting passes
+    public static final int MAX_PLY = 64;
+    // a history score is halved for its whole side once it passes this
+    private static final int HISTORY_LIMIT = 1 << 16;
+    private final TranspositionTable table;
+    private final int threads;
+    private final ForkJoinPool pool;
+    private Random random;
+    private boolean youngBrothersWait;
+    private boolean lazySmp;
+    private int endgameEmpties;
+    private int winLossDrawEmpties;
+    private boolean tableMoveFirst;
+    private boolean killerMoves;
+    private boolean historyHeuristic;
+    private boolean principalVariationSearch;
+    private int aspirationWindow;
+    private ProbCut probCut;
+    private PatternEvaluator evaluator;
+    private double probCutConfidence;
+    // the two killers of each ply, and the history of each side (by color) and square;
+    // threads share them without locks, since a lost update only costs a little ordering
+    private final int[] killers;
+    private final int[][] history;
+    private volatile boolean helpersStopped;
+    private long deadline;
+    private long nodeLimit;
+    private final AtomicLong nodes;
+    private volatile boolean stopped;
+    private volatile boolean cancelled;
+    private volatile boolean aborted;
+    private int completedDepth;
+    private long searchStart;
+    private int rootEmpties;
+    private final AtomicInteger selectiveDepth;
+    private final LongAdder interiorNodes;
+    private final LongAdder betaCutoffs;
+    private long startProbes;
+    private long startHits;
+    private long startCutoffs;
+    private SearchStats stats;
+    private volatile Consumer<SearchStats> listener;
+
+    /*
+     * This constructor creates a single threaded search whose choice
+     * between equal moves is random.
+     */
+    public Search(int tableMegabytes) {
+        this(tableMegabytes, 1, new Random());
+    }
+
+    /*
+     * This constructor creates the search and its transposition table,
+     * which is kept for every move of the game. Equal moves are chosen
+     * between with the given Random, so a seeded Random makes the search
+     * repeatable for any number of threads.
+     */
+    public Search(int tableMegabytes, int threads, Random random) {
+        this.table = new TranspositionTable(tableMegabytes);
+        this.threads = threads;
+        this.random = random;
+        this.nodes = new AtomicLong();
+        this.selectiveDepth = new AtomicInteger();
+        this.interiorNodes = new LongAdder();
+        this.betaCutoffs = new LongAdder();
+        this.endgameEmpties = Constants.ENDGAME_EMPTIES;
+        this.winLossDrawEmpties = Constants.WLD_EMPTIES;
+        this.tableMoveFirst = true;
+        this.killerMoves = true;
+        this.historyHeuristic = false;
+        this.principalVariationSearch = true;
+        this.aspirationWindow = Constants.ASPIRATION_WINDOW;
+        this.killers = new int[2 * MAX_PLY];
+        this.history = new int[2][64];
+        if (threads > 1) {
+            this.pool = new ForkJoinPool(threads);
+        } else {
+            this.pool = null;
+        }
+    }
+
+    /*
+     * This method is the iterative deepening driver. It searches depth 1,
+     * 2, 3... and returns the best move of the last depth that finished
+     * within the budget. A new depth is not started once half the time is
+     * used up, since it would most likely not finish.
+     */
+    public Move getBestMove(Position position, long timeMillis, long nodeLimit) {
+        int emptySquares = Long.bitCount(position.getEmpty());
+        return this.deepen(position, timeMillis, nodeLimit, emptySquares);
+    }
+
+    /*
+     * This method searches every depth up to the given one with no time
+     * or node budget. With a seeded Random the move it returns is the
+     * same every time, whatever the number of threads.
+     */
+    public Move getBestMove(Position position, int depth) {
+        return this.deepen(position, Long.MAX_VALUE / 2, Long.MAX_VALUE, depth);
+    }
+
+    /*
+     * This method runs the iterative deepening for getBestMove and
+     * publishes the stats of the search.
+     */
+    private Move deepen(Position position, long timeMillis, long nodeLimit, int maxDepth) {
+        this.searchStart = System.currentTimeMillis();
+        this.deadline = this.searchStart + timeMillis;
+        this.nodeLimit = nodeLimit;
+        this.nodes.set(0);
+        this.stopped = false;
+        this.completedDepth = 0;
+        this.rootEmpties = Long.bitCount(position.getEmpty());
+        this.selectiveDepth.set(0);
+        this.interiorNodes.reset();
+        this.betaCutoffs.reset();
+        this.startProbes = this.table.getProbes();
+        this.startHits = this.table.getHits();
+        this.startCutoffs = this.table.getCutoffs();
+        this.table.newSearch();
+        this.ageOrdering();
+
+        Move move = this.findMove(position, timeMillis, maxDepth);
+        this.publishStats(position, move);
+        return move;
+    }
+
+    /*
+     * This method finds the move for deepen: the only move if there is
+     * no choice, the EndgameSolver's move near the end (a winning or
+     * drawing move a little earlier, where it only solves for win, loss
+     * or draw), and otherwise the best move of the deepest depth that
+     * finished in time.
+     */
+    private Move findMove(Position position, long timeMillis, int maxDepth) {
+        long moves = position.getMoves();
+        if (Long.bitCount(moves) < 2 || this.isCancelled()) {
+            // nothing to think about with one move or none
+            return this.getOnlyMove(moves);
+        }
+
+        if (this.rootEmpties <= this.endgameEmpties) {
+            Move move = this.solveEndgame(position, timeMillis, false);
+            if (move != null) {
+                this.completedDepth = this.rootEmpties;
+                this.addSelectiveDepth(this.rootEmpties);
+                return move;
+            }
+        } else if (this.rootEmpties <= this.winLossDrawEmpties) {
+            Move move = this.solveEndgame(position, timeMillis, true);
+            // a lost position is left to the normal search, which at least
+            // plays for the opponent to go wrong
+            if (move != null && move.getVal() >= 0) {
+                this.completedDepth = this.rootEmpties;
+                this.addSelectiveDepth(this.rootEmpties);
+                // valued the way the normal search values a finished game
+                int value = Constants.NEUTRAL_VAL;
+                if (move.getVal() > 0) {
+                    value = Constants.HIGH_VAL;
+                }
+                return new Move(move.getI(), move.getJ(), value);
+            }
+        }
+
+        List<ForkJoinTask<?>> helpers = this.startHelpers(position, maxDepth);
+        Move bestMove = null;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            Move move = this.searchAspiration(position, depth, bestMove);
+            if (move == null) {
+                break;
+            }
+            bestMove = move;
+            this.completedDepth = depth;
+            this.publishStats(position, move);
+            if (System.currentTimeMillis() - this.searchStart > timeMillis / 2) {
+                break;
+            }
+        }
+        this.stopHelpers(helpers);
+        if (bestMove == null) {
+            // not even depth 1 finished, so any legal move will do
+            return this.getOnlyMove(moves);
+        }
+        return bestMove;
+    }
+
+    /*
+     * This method runs the EndgameSolver, exactly or only for win, loss
+     * or draw, on half of the time and node budget. If it does not
+     * finish, it returns null and the search is let go on, so the
+     * midgame search can use the other half.
+     */
+    private Move solveEndgame(Position position, long timeMillis, boolean winLossDraw) {
+        long fullDeadline = this.deadline;
+        long fullNodeLimit = this.nodeLimit;
+        this.deadline = this.searchStart + timeMillis / 2;
+        this.nodeLimit = fullNodeLimit / 2;
+        Move move = new EndgameSolver(this).solve(position, winLossDraw, this.random);
+        this.deadline = fullDeadline;
+        this.nodeLimit = fullNodeLimit;
+        if (move == null && !this.isCancelled()) {
+            this.stopped = false;
+        }
+        return move;
+    }
+
+    /*
+     * This method makes the stats of the search so far and hands them
+     * to the listener, if there is one. The table rates only count the
+     * probes of this search.
+     */
+    private void publishStats(Position position, Move move) {
+        long probes = this.table.getProbes() - this.startProbes;
+        double hitRate = 0;
+        double cutoffRate = 0;
+        if (probes > 0) {
+            hitRate = (double) (this.table.getHits() - this.startHits) / probes;
+            cutoffRate = (double) (this.table.getCutoffs() - this.startCutoffs) / probes;
+        }
+        long interior = this.interiorNodes.sum();
+        double betaCutoffRate = 0;
+        if (interior > 0) {
+            betaCutoffRate = (double) this.betaCutoffs.sum() / interior;
+        }
+        this.stats = new SearchStats(this.nodes.get(), System.currentTimeMillis() - this.searchStart,
+                this.completedDepth, Math.max(this.completedDepth, this.selectiveDepth.get()), hitRate,
+                cutoffRate, betaCutoffRate, move.getVal(), this.getPrincipalVariation(position, move), false);
+        Consumer<SearchStats> statsListener = this.listener;
+        if (statsListener != null) {
+            statsListener.accept(this.stats);
+        }
+    }
+
+    /*
+     * This method writes out the line the search expects: the move, then
+     * the best reply the table has for each position after it, up to the
+     * depth that finished.
+     */
+    private String getPrincipalVariation(Position position, Move move) {
+        if (move.getI() == Constants.ARBITRARY) {
+            return "";
+        }
+        StringBuilder line = new StringBuilder();
+        Position linePosition = new Position(position);
+        int square = Position.square(move.getI(), move.getJ());
+        for (int ply = 0; ply < Math.max(1, this.completedDepth); ply++) {
+            // a table entry could belong to another position
+            if (square == TranspositionTable.NO_MOVE || (linePosition.getMoves() & (1L << square)) == 0) {
+                break;
+            }
+            if (ply > 0) {
+                line.append(' ');
+            }
+            line.append(Position.getSquareName(square));
+            linePosition.play(square);
+            if (linePosition.isGameOver()) {
+                break;
+            }
+            if (linePosition.getMoves() == 0) {
+                linePosition.pass();
+                line.append(" pass");
+            }
+            square = TranspositionTable.getBestMove(this.table.probe(linePosition.getHash()));
+        }
+        return line.toString();
+    }
+
+    /*
+     * This method searches one depth with an aspiration window: since
+     * the value rarely moves far from one depth to the next, the root is
+     * first searched with a narrow window around the last depth's value,
+     * which cuts off more. If the value falls outside it, the side it
+     * fell out of is widened (twice as far each time) and the depth is
+     * searched again. It returns null if the budget ran out first.
+     */
+    private Move searchAspiration(Position position, int depth, Move lastMove) {
+        if (this.aspirationWindow <= 0 || lastMove == null || Math.abs(lastMove.getVal()) >= Constants.HIGH_VAL) {
+            return this.searchRoot(position, depth, -Constants.INFINITE_VAL, Constants.INFINITE_VAL);
+        }
+        int center = lastMove.getVal();
+        int lowWidth = this.aspirationWindow;
+        int highWidth = this.aspirationWindow;
+        while (true) {
+            int alpha = Math.max(center - lowWidth, -Constants.INFINITE_VAL);
+            int beta = Math.min(center + highWidth, Constants.INFINITE_VAL);
+            Move move = this.searchRoot(position, depth, alpha, beta);
+            if (move == null) {
+                return null;
+            }
+            if (move.getVal() <= alpha && alpha > -Constants.INFINITE_VAL) {
+                lowWidth *= 2;
+            } else if (move.getVal() >= beta && beta < Constants.INFINITE_VAL) {
+                highWidth *= 2;
+            } else {
+                return move;
+            }
+        }
+    }
+
+    /*
+     * This method is the miniMax algorithm with alpha-beta pruning for
+     * one depth, searching every root move with a full window.
+     */
+    public Move searchRoot(Position position, int intelligence) {
+        return this.searchRoot(position, intelligence, -Constants.INFINITE_VAL, Constants.INFINITE_VAL);
+    }
+
+    /*
+     * This method is the miniMax algorithm with alpha-beta pruning for
+     * one depth, within the window from alpha to beta. It returns a Move
+     * that is deems as best, or null if the budget ran out first. Moves
+     * of equal value are chosen between at random. If the best value is
+     * alpha or less, or beta or more, it is only a bound, so the Move
+     * only has that value and the depth should be searched again with a
+     * wider window.
+     */
+    public Move searchRoot(Position position, int intelligence, int alpha, int beta) {
+        int tableMove = this.getTableMove(this.table.probe(position.getHash()));
+        int[] squares = SearchWorker.orderMoves(position, position.getMoves(), tableMove);
+        int[] values = new int[squares.length];
+        Arrays.fill(values, -Constants.INFINITE_VAL);
+
+        // alpha sits just below the best value so that equal moves
+        // still get an exact value and can join the random choice.
+        SearchWorker worker = new SearchWorker(this, false);
+        Position searchPosition = new Position(position);
+        int bestVal = -Constants.INFINITE_VAL;
+        for (int k = 0; k < squares.length; k++) {
+            int lowest = Math.max(bestVal - 1, alpha);
+            if (k == 1 && this.pool != null && !this.lazySmp) {
+                this.searchSiblings(position, squares, squares.length, values, intelligence, lowest + 1,
+                        beta, true);
+                break;
+            }
+            if (k == 0) {
+                values[k] = worker.getMoveValue(searchPosition, squares[k], intelligence, lowest, beta, false);
+            } else {
+                values[k] = worker.getScoutValue(searchPosition, squares[k], intelligence, lowest, beta, false);
+            }
+            bestVal = Math.max(bestVal, values[k]);
+            if (bestVal >= beta) {
+                // too good for the window; its value is only a lower bound
+                break;
+            }
+        }
+        worker.flushNodes();
+        if (this.stopped) {
+            return null;
+        }
+
+        // non-deterministic move choice.
+        // It chooses at random instead of a fixed outcome. The
+        // equal moves are taken in square order so a seeded Random
+        // picks the same one whatever order the threads finished in.
+        for (int value : values) {
+            bestVal = Math.max(bestVal, value);
+        }
+        if (bestVal <= alpha || bestVal >= beta) {
+            // no move is picked, so a seeded Random draws the same as without the window
+            return new Move(Constants.ARBITRARY, Constants.ARBITRARY, bestVal);
+        }
+        Move bestMove = chooseMove(squares, values, this.random);
+        if (bestMove == null) {
+            return new Move(Constants.ARBITRARY, Constants.ARBITRARY, Constants.LOW_VAL);
+        }
+        this.table.store(position.getHash(), intelligence, TranspositionTable.EXACT, bestMove.getVal(),
+                Position.square(bestMove.getI(), bestMove.getJ()));
+        return bestMove;
+    }
+
+    /*
+     * This method picks at random between the moves with the best value,
+     * taking them in square order. It returns null if there are no moves.
+     * The Move is only made for the one that is picked.
+     */
+    public static Move chooseMove(int[] squares, int[] values, Random random) {
+        int bestVal = Integer.MIN_VALUE;
+        long bestSquares = 0;
+        for (int k = 0; k < squares.length; k++) {
+            if (values[k] > bestVal) {
+                bestVal = values[k];
+                bestSquares = 0;
+            }
+            if (values[k] == bestVal) {
+                bestSquares |= 1L << squares[k];
+            }
+        }
+        if (bestSquares == 0) {
+            return null;
+        }
+        for (int skip = random.nextInt(Long.bitCount(bestSquares)); skip > 0; skip--) {
+            bestSquares &= bestSquares - 1;
+        }
+        int square = Long.numberOfTrailingZeros(bestSquares);
+        return new Move(Position.getRow(square), Position.getCol(square), bestVal);
+    }
+
+    /*
+     * This method searches the moves after the first (of the count in
+     * squares) in parallel and puts their values in the values array.
+     * The siblings share one alpha, so a good value found by one narrows the window of the ones
+     * that start after it. At the root, alpha is kept just below the
+     * best value (like the single threaded search) and the replies are
+     * split again if Young Brothers Wait is on. A sibling that starts
+     * after a cutoff is skipped. Each is searched with a null window
+     * first, like any move after the first.
+     */
+    public void searchSiblings(Position position, int[] squares, int count, int[] values, int intelligence,
+                               int alpha, int beta, boolean root) {
+        AtomicInteger sharedAlpha = new AtomicInteger(alpha);
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int k = 1; k < count; k++) {
+            int index = k;
+            // each sibling plays its moves on its own copy
+            Position taskPosition = new Position(position);
+            tasks.add(ForkJoinTask.adapt(() -> {
+                int lowest = sharedAlpha.get();
+                if (root) {
+                    lowest--;
+                }
+                if (lowest >= beta) {
+                    values[index] = -Constants.INFINITE_VAL;
+                    return;
+                }
+                SearchWorker worker = new SearchWorker(this, false);
+                values[index] = worker.getScoutValue(taskPosition, squares[index], intelligence,
+                        lowest, beta, root && this.youngBrothersWait);
+                worker.flushNodes();
+                sharedAlpha.accumulateAndGet(values[index], Math::max);
+            }));
+        }
+        if (ForkJoinTask.getPool() == this.pool) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            try {
+                this.pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+            } catch (RejectedExecutionException e) {
+                // the search was shut down while it was running
+                this.stopped = true;
+            }
+        }
+    }
+
+    /*
+     * This method starts one Lazy SMP helper on each thread but the
+     * searching one. Nothing is started outside Lazy SMP mode.
+     */
+    private List<ForkJoinTask<?>> startHelpers(Position position, int maxDepth) {
+        this.helpersStopped = false;
+        List<ForkJoinTask<?>> helpers = new ArrayList<>();
+        if (!this.lazySmp || this.pool == null) {
+            return helpers;
+        }
+        for (int helper = 1; helper < this.threads; helper++) {
+            int index = helper;
+            try {
+                helpers.add(this.pool.submit(() -> this.runHelper(position, index, maxDepth)));
+            } catch (RejectedExecutionException e) {
+                // the search was shut down, so there is nothing to help
+                break;
+            }
+        }
+        return helpers;
+    }
+
+    /*
+     * This method is a Lazy SMP helper. It deepens like the main search,
+     * but every other helper starts a ply deeper and each one begins with
+     * a different root move, so they fill the table with different
+     * positions. Its results are only used through the table.
+     */
+    private void runHelper(Position position, int helper, int maxDepth) {
+        SearchWorker worker = new SearchWorker(this, true);
+        Position helperPosition = new Position(position);
+        for (int depth = 1 + helper % 2; depth <= maxDepth && !worker.isStopped(); depth++) {
+            int tableMove = this.getTableMove(this.table.probe(position.getHash()));
+            int[] squares = SearchWorker.orderMoves(position, position.getMoves(), tableMove);
+            int bestVal = -Constants.INFINITE_VAL;
+            for (int k = 0; k < squares.length && !worker.isStopped(); k++) {
+                int square = squares[(k + helper) % squares.length];
+                int value = worker.getMoveValue(helperPosition, square, depth, bestVal,
+                        Constants.INFINITE_VAL, false);
+                bestVal = Math.max(bestVal, value);
+            }
+        }
+        worker.flushNodes();
+    }
+
+    /*
+     * This method tells the helpers the main search is done and waits
+     * for them, so none are left running into the next search.
+     */
+    private void stopHelpers(List<ForkJoinTask<?>> helpers) {
+        this.helpersStopped = true;
+        for (ForkJoinTask<?> helper : helpers) {
+            helper.join();
+        }
+    }
+
+    /*
+     * This method adds the nodes a worker has searched and checks whether
+     * the time or node budget has run out or the search was cancelled.
+     */
+    public void addNodes(long workerNodes) {
+        long total = this.nodes.addAndGet(workerNodes);
+        if (total >= this.nodeLimit || this.isCancelled()
+                || System.currentTimeMillis() >= this.deadline) {
+            this.stopped = true;
+        }
+    }
+
+    /*
+     * This method adds what a worker counted for the stats: the most
+     * moves it played from the root, the positions whose moves it
+     * searched and how many of those ended with a beta cutoff.
+     */
+    public void addWorkerStats(int workerDepth, long workerInterior, long workerCutoffs) {
+        this.addSelectiveDepth(workerDepth);
+        this.interiorNodes.add(workerInterior);
+        this.betaCutoffs.add(workerCutoffs);
+    }
+
+    /*
+     * This method raises the selective depth to the given one.
+     */
+    private void addSelectiveDepth(int depth) {
+        if (depth > this.selectiveDepth.get()) {
+            this.selectiveDepth.accumulateAndGet(depth, Math::max);
+        }
+    }
+
+    /*
+     * This method asks a running search, from any thread, to give up as
+     * soon as possible. Every later search also returns straight away.
+     */
+    public void cancel() {
+        this.cancelled = true;
+        this.stopped = true;
+    }
+
+    /*
+     * This method asks a running search, from any thread, to give up as
+     * soon as possible, like cancel, but only until clearAbort is called.
+     * A search that starts in between returns straight away.
+     */
+    public void abort() {
+        this.aborted = true;
+        this.stopped = true;
+    }
+
+    /*
+     * This method lets searches run again after abort.
+     */
+    public void clearAbort() {
+        this.aborted = false;
+    }
+
+    /*
+     * This method shuts down the search's threads once it is no longer needed.
+     */
+    public void shutdown() {
+        this.cancel();
+        if (this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+
+    /*
+     * This method gets the search ready to order moves for a new root:
+     * the killers belonged to other plies of the last position, so they
+     * are cleared, and the history is halved.
+     */
+    private void ageOrdering() {
+        Arrays.fill(this.killers, TranspositionTable.NO_MOVE);
+        for (int[] sideHistory : this.history) {
+            for (int square = 0; square < 64; square++) {
+                sideHistory[square] >>= 1;
+            }
+        }
+    }
+
+    /*
+     * This method notes that a move caused a beta cutoff: it becomes the
+     * first killer of its ply, and its history grows by the square of the
+     * depth left, so cutoffs near the root count the most.
+     */
+    public void addCutoffMove(int ply, int color, int square, int intelligence) {
+        if (this.killerMoves && ply < MAX_PLY && this.killers[2 * ply] != square) {
+            this.killers[2 * ply + 1] = this.killers[2 * ply];
+            this.killers[2 * ply] = square;
+        }
+        if (this.historyHeuristic) {
+            int[] sideHistory = this.history[color];
+            sideHistory[square] += intelligence * intelligence;
+            if (sideHistory[square] > HISTORY_LIMIT) {
+                for (int k = 0; k < 64; k++) {
+                    sideHistory[k] >>= 1;
+                }
+            }
+        }
+    }
+
+    /*
+     * This getter method gets the best move of a table entry, to be
+     * searched first, or NO_MOVE if there is none or table moves are off.
+     */
+    public int getTableMove(long entry) {
+        if (!this.tableMoveFirst) {
+            return TranspositionTable.NO_MOVE;
+        }
+        return TranspositionTable.getBestMove(entry);
+    }
+
+    /*
+     * This getter method gets a killer move of a ply (slot 0 or 1), or
+     * NO_MOVE if killer moves are off.
+     */
+    public int getKiller(int ply, int slot) {
+        if (!this.killerMoves || ply >= MAX_PLY) {
+            return TranspositionTable.NO_MOVE;
+        }
+        return this.killers[2 * ply + slot];
+    }
+
+    /*
+     * This getter method gets the history scores of a color by square,
+     * or null if the history heuristic is off.
+     */
+    public int[] getHistory(int color) {
+        if (!this.historyHeuristic) {
+            return null;
+        }
+        return this.history[color];
+    }
+
+    /*
+     * This method returns the first legal move, or an arbitrary move if
+     * there are none.
+     */
+    private Move getOnlyMove(long moves) {
+        if (moves == 0) {
+            return new Move(Constants.ARBITRARY, Constants.ARBITRARY, Constants.LOW_VAL);
+        }
+        int square = Long.numberOfTrailingZeros(moves);
+        return new Move(Position.getRow(square), Position.getCol(square), Constants.NEUTRAL_VAL);
+    }
+
+    /*
+     * This setter method turns splitting the replies to each root move
+     * between the threads (Young Brothers Wait) on or off.
+     */
+    public void setYoungBrothersWait(boolean youngBrothersWait) {
+        this.youngBrothersWait = youngBrothersWait;
+    }
+
+    /*
+     * This setter method turns Lazy SMP mode on or off. In Lazy SMP mode
+     * the root moves are not split; the other threads run helpers instead.
+     */
+    public void setLazySmp(boolean lazySmp) {
+        this.lazySmp = lazySmp;
+    }
+
+    /*
+     * This setter method sets how many empty squares there must be at most
+     * for the EndgameSolver to be used instead of the normal search.
+     */
+    public void setEndgameEmpties(int endgameEmpties) {
+        this.endgameEmpties = endgameEmpties;
+    }
+
+    /*
+     * This setter method sets how many empty squares there must be at
+     * most for the EndgameSolver to look for a win or a draw first, when
+     * there are too many for the exact solve.
+     */
+    public void setWinLossDrawEmpties(int winLossDrawEmpties) {
+        this.winLossDrawEmpties = winLossDrawEmpties;
+    }
+
+    /*
+     * This setter method turns searching the table's best move first on or off.
+     */
+    public void setTableMoveFirst(boolean tableMoveFirst) {
+        this.tableMoveFirst = tableMoveFirst;
+    }
+
+    /*
+     * This setter method turns the killer moves on or off.
+     */
+    public void setKillerMoves(boolean killerMoves) {
+        this.killerMoves = killerMoves;
+    }
+
+    /*
+     * This setter method turns the history heuristic on or off.
+     */
+    public void setHistoryHeuristic(boolean historyHeuristic) {
+        this.historyHeuristic = historyHeuristic;
+    }
+
+    /*
+     * This setter method turns Principal Variation Search on or off.
+     */
+    public void setPrincipalVariationSearch(boolean principalVariationSearch) {
+        this.principalVariationSearch = principalVariationSearch;
+    }
+
+    /*
+     * This setter method sets half the width of the aspiration window,
+     * or 0 to search every depth with a full window.
+     */
+    public void setAspirationWindow(int aspirationWindow) {
+        this.aspirationWindow = aspirationWindow;
+    }
+
+    /*
+     * This setter method sets the lines Multi-ProbCut predicts deep
+     * values with and how many standard deviations out a shallow value
+     * must be to cut. With no lines or a confidence of 0 the search is
+     * full width.
+     */
+    public void setProbCut(ProbCut probCut, double probCutConfidence) {
+        this.probCut = probCut;
+        this.probCutConfidence = probCutConfidence;
+    }
+
+    /*
+     * This setter method sets the pattern weights leaves are valued
+     * with, or null to value them with the square weights.
+     */
+    public void setEvaluator(PatternEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /*
+     * This setter method sets the Random equal moves are chosen between
+     * with, for a search that is used by more than one game.
+     */
+    public void setRandom(Random random) {
+        this.random = random;
+    }
+
+    /*
+     * This setter method sets who is told the stats after every depth the
+     * search finishes and once it is done. It is called on the searching
+     * thread, so it should hand the stats on quickly.
+     */
+    public void setListener(Consumer<SearchStats> listener) {
+        this.listener = listener;
+    }
+
+    /*
+     * This getter method gets the stats of the last search.
+     */
+    public SearchStats getStats() {
+        return this.stats;
+    }
+
+    /*
+     * This getter method gets the number of empty squares where the
+     * search started.
+     */
+    public int getRootEmpties() {
+        return this.rootEmpties;
+    }
+
+    /*
+     * This getter method checks whether the Lazy SMP helpers should stop.
+     */
+    public boolean areHelpersStopped() {
+        return this.helpersStopped;
+    }
+
+    /*
+     * This getter method checks whether moves after the first are
+     * searched with a null window first.
+     */
+    public boolean isPrincipalVariationSearch() {
+        return this.principalVariationSearch;
+    }
+
+    /*
+     * This getter method gets the lines of Multi-ProbCut, or null if it
+     * is not used.
+     */
+    public ProbCut getProbCut() {
+        if (this.probCutConfidence <= 0) {
+            return null;
+        }
+        return this.probCut;
+    }
+
+    /*
+     * This getter method gets the pattern weights leaves are valued with,
+     * or null if they are valued with the square weights.
+     */
+    public PatternEvaluator getEvaluator() {
+        return this.evaluator;
+    }
+
+    /*
+     * This getter method gets how many standard deviations out a shallow
+     * value must be for Multi-ProbCut to cut.
+     */
+    public double getProbCutConfidence() {
+        return this.probCutConfidence;
+    }
+
+    /*
+     * This getter method checks whether the search has been stopped.
+     */
+    public boolean isStopped() {
+        return this.stopped;
+    }
+
+    /*
+     * This getter method checks whether the search has been cancelled
+     * or aborted.
+     */
+    public boolean isCancelled() {
+        return this.cancelled || this.aborted;
+    }
+
+    /*
+     * This getter method gets the pool of a multithreaded search, or null.
+     */
+    public ForkJoinPool getPool() {
+        return this.pool;
+    }
+
+    /*
+     * This getter method gets the transposition table.
+     */
+    public TranspositionTable getTable() {
+        return this.table;
+    }
+
+    /*
+     * This getter method gets the number of threads the search uses.
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+    /*
+     * This getter method gets the deepest depth the last search finished.
+     */
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    /*
+     * This getter method gets the number of nodes the last search visited.
+     */
+    public long getNodes() {
+        return this.nodes.get();
+    }
+}
@@ -0,0 +1,188 @@
+package othello;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/*
+ * This class runs the searches of many games on a fixed number of
+ * threads, so however many games are played the engines never use more
+ * cores than that. Each owner (a session of GameServer) has a queue of
+ * its own, and the threads take one search from each owner with work in
+ * turn. An owner with many searches waiting therefore cannot hold up one
+ * that only has a single search. The time from submitting a search to
+ * its end, waiting included, is counted in a LatencyHistogram.
+ */
+public class SearchScheduler {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workReady = this.lock.newCondition();
+    // owners in the order they are served, and the searches each one has waiting
+    private final ArrayDeque<Object> ready = new ArrayDeque<>();
+    private final HashMap<Object, ArrayDeque<Runnable>> queues = new HashMap<>();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final Thread[] workers;
+    private int queued;
+    private int active;
+    private boolean shutdown;
+
+    /*
+     * This constructor starts the worker threads.
+     */
+    public SearchScheduler(int threads) {
+        this.workers = new Thread[threads];
+        for (int k = 0; k < threads; k++) {
+            this.workers[k] = new Thread(this::work, "othello-search-" + k);
+            this.workers[k].setDaemon(true);
+            this.workers[k].start();
+        }
+    }
+
+    /*
+     * This method queues a search for an owner. The future is completed
+     * with its result on one of the worker threads.
+     */
+    public <T> CompletableFuture<T> submit(Object owner, Supplier<T> search) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long submitted = System.nanoTime();
+        Runnable task = () -> {
+            try {
+                future.complete(search.get());
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+            this.latencies.record((System.nanoTime() - submitted) / 1000);
+        };
+        this.lock.lock();
+        try {
+            if (this.shutdown) {
+                throw new IllegalStateException("the scheduler is shut down");
+            }
+            ArrayDeque<Runnable> queue = this.queues.get(owner);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                this.queues.put(owner, queue);
+                this.ready.add(owner);
+            }
+            queue.add(task);
+            this.queued++;
+            this.workReady.signal();
+        } finally {
+            this.lock.unlock();
+        }
+        return future;
+    }
+
+    /*
+     * This method drops the searches an owner still has waiting, for
+     * when its session ends. A search that is running is not stopped.
+     */
+    public void cancel(Object owner) {
+        this.lock.lock();
+        try {
+            ArrayDeque<Runnable> queue = this.queues.remove(owner);
+            if (queue != null) {
+                this.queued -= queue.size();
+                this.ready.remove(owner);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * This method is the loop of a worker thread: take the next owner in
+     * turn, run one of its searches and put it back at the end of the
+     * line if it has more.
+     */
+    private void work() {
+        while (true) {
+            Runnable task;
+            this.lock.lock();
+            try {
+                while (this.ready.isEmpty() && !this.shutdown) {
+                    this.workReady.awaitUninterruptibly();
+                }
+                if (this.shutdown) {
+                    return;
+                }
+                Object owner = this.ready.poll();
+                ArrayDeque<Runnable> queue = this.queues.get(owner);
+                task = queue.poll();
+                if (queue.isEmpty()) {
+                    this.queues.remove(owner);
+                } else {
+                    this.ready.add(owner);
+                }
+                this.queued--;
+                this.active++;
+            } finally {
+                this.lock.unlock();
+            }
+            try {
+                task.run();
+            } finally {
+                this.lock.lock();
+                try {
+                    this.active--;
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /*
+     * This method stops the worker threads once their searches end.
+     * Searches that are still waiting are dropped.
+     */
+    public void shutdown() {
+        this.lock.lock();
+        try {
+            this.shutdown = true;
+            this.workReady.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * This getter method gets the number of searches waiting for a thread.
+     */
+    public int getQueued() {
+        this.lock.lock();
+        try {
+            return this.queued;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * This getter method gets the number of searches running.
+     */
+    public int getActive() {
+        this.lock.lock();
+        try {
+            return this.active;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /*
+     * This getter method gets the number of worker threads.
+     */
+    public int getThreads() {
+        return this.workers.length;
+    }
+
+    /*
+     * This getter method gets the latencies of the searches.
+     */
+    public LatencyHistogram getLatencies() {
+        return this.latencies;
+    }
+}
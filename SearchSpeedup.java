@@ -0,0 +1,103 @@
+package othello;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+ * This class reports how much faster the parallel search is than the
+ * single threaded one. It searches the same positions to the same depth
+ * with 1, 2, 4, 8 and 16 threads, either splitting the root or with Lazy
+ * SMP helpers, and also checks that every thread count plays the same
+ * moves when seeded. It runs without JavaFX:
+ *
+ *     java othello.SearchSpeedup [depth] [positions] [seed] [split|lazy]
+ */
+public class SearchSpeedup {
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+
+    /*
+     * Here is the mainline!
+     */
+    public static void main(String[] argv) {
+        int depth = 9;
+        int positionCount = 12;
+        long seed = 1;
+        if (argv.length > 0) {
+            depth = Integer.parseInt(argv[0]);
+        }
+        if (argv.length > 1) {
+            positionCount = Integer.parseInt(argv[1]);
+        }
+        if (argv.length > 2) {
+            seed = Long.parseLong(argv[2]);
+        }
+        boolean lazySmp = argv.length > 3 && argv[3].equals("lazy");
+
+        ArrayList<Position> positions = makePositions(positionCount, seed);
+        double baseSeconds = 0;
+        int[] baseMoves = null;
+        for (int threads : THREAD_COUNTS) {
+            Search search = new Search(Constants.TABLE_MEGABYTES, threads, new Random(seed));
+            search.setYoungBrothersWait(true);
+            search.setLazySmp(lazySmp);
+            int[] moves = new int[positions.size()];
+            long nodes = 0;
+            long start = System.nanoTime();
+            for (int k = 0; k < positions.size(); k++) {
+                Move move = search.getBestMove(positions.get(k), depth);
+                moves[k] = Position.square(move.getI(), move.getJ());
+                nodes += search.getNodes();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            search.shutdown();
+
+            if (baseMoves == null) {
+                baseSeconds = seconds;
+                baseMoves = moves;
+            }
+            boolean sameMoves = Arrays.equals(baseMoves, moves);
+            System.out.printf("%2d threads: %7.2f s, %10d nodes, %9.0f nodes/s, speedup %5.2fx, "
+                    + "same moves: %b%n", threads, seconds, nodes, nodes / seconds,
+                    baseSeconds / seconds, sameMoves);
+        }
+    }
+
+    /*
+     * This method makes the positions to search by playing random moves
+     * from the start, spread over the opening and the midgame.
+     */
+    public static ArrayList<Position> makePositions(int count, long seed) {
+        return makePositions(count, seed, 8, 40);
+    }
+
+    /*
+     * This method makes positions by playing random moves from the start,
+     * the number of moves growing evenly from minPlies to maxPlies, so
+     * every stage in between gets about as many (a pass counts as a
+     * move). Only positions where the player to move has a choice are kept.
+     */
+    public static ArrayList<Position> makePositions(int count, long seed, int minPlies, int maxPlies) {
+        Random random = new Random(seed);
+        ArrayList<Position> positions = new ArrayList<>();
+        while (positions.size() < count) {
+            Position position = new Position();
+            int plies = minPlies + positions.size() * (maxPlies - minPlies) / Math.max(1, count);
+            for (int ply = 0; ply < plies && !position.isGameOver(); ply++) {
+                long moves = position.getMoves();
+                if (moves == 0) {
+                    position.pass();
+                    continue;
+                }
+                for (int skip = random.nextInt(Long.bitCount(moves)); skip > 0; skip--) {
+                    moves &= moves - 1;
+                }
+                position.play(Long.numberOfTrailingZeros(moves));
+            }
+            if (Long.bitCount(position.getMoves()) > 1) {
+                positions.add(position);
+            }
+        }
+        return positions;
+    }
+}
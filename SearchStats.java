@@ -0,0 +1,170 @@
+package othello;
+
+/*
+ * This class holds what a search did to find a move: how many nodes it
+ * visited and how fast, how deep it got, how well the transposition table
+ * and alpha-beta worked, and the line it expects (the principal
+ * variation) with its score. A Search makes one after every depth it
+ * finishes and one when it is done.
+ */
+public class SearchStats {
+    private final long nodes;
+    private final long millis;
+    private final int depth;
+    private final int selectiveDepth;
+    private final double tableHitRate;
+    private final double tableCutoffRate;
+    private final double betaCutoffRate;
+    private final int score;
+    private final String principalVariation;
+    private final boolean book;
+    private final boolean ponderHit;
+
+    /*
+     * This constructor sets the instance variables equal to what was passed through.
+     */
+    public SearchStats(long nodes, long millis, int depth, int selectiveDepth, double tableHitRate,
+                       double tableCutoffRate, double betaCutoffRate, int score,
+                       String principalVariation, boolean book) {
+        this(nodes, millis, depth, selectiveDepth, tableHitRate, tableCutoffRate, betaCutoffRate, score,
+                principalVariation, book, false);
+    }
+
+    /*
+     * This constructor also sets whether the move was found while
+     * pondering on the position the opponent went on to play.
+     */
+    private SearchStats(long nodes, long millis, int depth, int selectiveDepth, double tableHitRate,
+                        double tableCutoffRate, double betaCutoffRate, int score,
+                        String principalVariation, boolean book, boolean ponderHit) {
+        this.nodes = nodes;
+        this.millis = millis;
+        this.depth = depth;
+        this.selectiveDepth = selectiveDepth;
+        this.tableHitRate = tableHitRate;
+        this.tableCutoffRate = tableCutoffRate;
+        this.betaCutoffRate = betaCutoffRate;
+        this.score = score;
+        this.principalVariation = principalVariation;
+        this.book = book;
+        this.ponderHit = ponderHit;
+    }
+
+    /*
+     * This method makes the stats of a move taken from the opening book.
+     */
+    public static SearchStats forBookMove(Move move) {
+        String name = Position.getSquareName(Position.square(move.getI(), move.getJ()));
+        return new SearchStats(0, 0, 0, 0, 0, 0, 0, move.getVal(), name, true);
+    }
+
+    /*
+     * This method makes a copy of the stats of a search that pondered on
+     * the position the opponent went on to play (a ponder hit).
+     */
+    public SearchStats forPonderHit() {
+        return new SearchStats(this.nodes, this.millis, this.depth, this.selectiveDepth, this.tableHitRate,
+                this.tableCutoffRate, this.betaCutoffRate, this.score, this.principalVariation, this.book, true);
+    }
+
+    /*
+     * This method describes the stats on one line.
+     */
+    @Override
+    public String toString() {
+        if (this.book) {
+            return "book move " + this.principalVariation + ", average disc difference " + this.score;
+        }
+        return (this.ponderHit ? "ponder hit, " : "") + String.format("depth %d/%d, %d nodes, %.0f nodes/s, %d ms, TT %.1f%% hits %.1f%% cutoffs, "
+                + "beta cutoffs %.1f%%, score %d, pv %s", this.depth, this.selectiveDepth, this.nodes,
+                this.getNodesPerSecond(), this.millis, 100 * this.tableHitRate, 100 * this.tableCutoffRate,
+                100 * this.betaCutoffRate, this.score, this.principalVariation);
+    }
+
+    /*
+     * This getter method gets the number of nodes searched.
+     */
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    /*
+     * This getter method gets the time the search took.
+     */
+    public long getMillis() {
+        return this.millis;
+    }
+
+    /*
+     * This getter method gets the nodes searched per second.
+     */
+    public double getNodesPerSecond() {
+        return this.nodes * 1000.0 / Math.max(1, this.millis);
+    }
+
+    /*
+     * This getter method gets the deepest depth the search finished.
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /*
+     * This getter method gets the most moves any line was searched to.
+     */
+    public int getSelectiveDepth() {
+        return this.selectiveDepth;
+    }
+
+    /*
+     * This getter method gets the share of table probes that found their position.
+     */
+    public double getTableHitRate() {
+        return this.tableHitRate;
+    }
+
+    /*
+     * This getter method gets the share of table probes that ended the
+     * search of their position.
+     */
+    public double getTableCutoffRate() {
+        return this.tableCutoffRate;
+    }
+
+    /*
+     * This getter method gets the share of searched positions where a
+     * move was too good for the opponent to allow (a beta cutoff).
+     */
+    public double getBetaCutoffRate() {
+        return this.betaCutoffRate;
+    }
+
+    /*
+     * This getter method gets the score of the chosen move.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /*
+     * This getter method gets the expected line of play, as square names.
+     */
+    public String getPrincipalVariation() {
+        return this.principalVariation;
+    }
+
+    /*
+     * This getter method checks whether the move came from the opening book.
+     */
+    public boolean isBook() {
+        return this.book;
+    }
+
+    /*
+     * This getter method checks whether the move was found while
+     * pondering on the opponent's move.
+     */
+    public boolean isPonderHit() {
+        return this.ponderHit;
+    }
+}
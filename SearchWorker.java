@@ -0,0 +1,385 @@
+package othello;
+
+import java.util.Arrays;
+
+/*
+ * This is the SearchWorker class. It is the part of the Search that runs
+ * on one thread: the recursive miniMax algorithm and the move ordering.
+ * Every thread of a parallel search gets its own worker, while the
+ * Search holds what they share (the transposition table and the budget).
+ * A helper worker only fills the table for the main one (Lazy SMP).
+ * The worker plays and takes back moves on the one Position it is given
+ * instead of copying it for every node, and sorts the moves of each node
+ * into a row of its move stack kept for that depth, so searching a node
+ * allocates nothing. Every move after the first is searched with a null
+ * window first (Principal Variation Search), and nodes that a shallow
+ * search shows are far outside their window are cut off (Multi-ProbCut).
+ */
+public class SearchWorker {
+    private static final int CHECK_INTERVAL = 1024;
+    // more than the moves any position can have, and the depths the move stack starts with
+    public static final int MAX_MOVES = 64;
+    private static final int STACK_DEPTHS = 64;
+    // a move's ordering key goes above its square; the table move gets the highest key,
+    // then the two killers, and history scores are scaled down to stay below them
+    private static final int SQUARE_BITS = 6;
+    private static final int TABLE_MOVE_KEY = 1 << 20;
+    private static final int KILLER_KEY = TABLE_MOVE_KEY - 1;
+    private static final int HISTORY_SHIFT = 8;
+    private static final int NO_CUT = Integer.MIN_VALUE;
+
+    private final Search search;
+    private final TranspositionTable table;
+    private final boolean helper;
+    private final int rootEmpties;
+    private final ProbCut probCut;
+    private final double probCutConfidence;
+    private final PatternEvaluator evaluator;
+    private long nodes;
+    private int selectiveDepth;
+    private long interiorNodes;
+    private long betaCutoffs;
+    // the moves of the node being searched at each remaining depth, made when first needed
+    private int[][] moveStack = new int[STACK_DEPTHS][];
+
+    /*
+     * This constructor sets the instance variables equal to what was passed through.
+     */
+    public SearchWorker(Search search, boolean helper) {
+        this.search = search;
+        this.table = search.getTable();
+        this.helper = helper;
+        this.rootEmpties = search.getRootEmpties();
+        this.probCut = search.getProbCut();
+        this.probCutConfidence = search.getProbCutConfidence();
+        this.evaluator = search.getEvaluator();
+    }
+
+    /*
+     * This method makes a move on the position, gets its value from the
+     * mover's perspective and takes the move back.
+     */
+    public int getMoveValue(Position position, int square, int intelligence,
+                            int alpha, int beta, boolean split) {
+        position.makeMove(square);
+        // recursion through opponents perspective
+        int value = -this.negamax(position, intelligence - 1, -beta, -alpha, split);
+        position.undoMove();
+        return value;
+    }
+
+    /*
+     * This method gets the value of a move that is not searched first
+     * (Principal Variation Search). The first move is most likely the
+     * best, so this one is only checked with a null window (alpha,
+     * alpha + 1) to prove it is no better, which cuts off far more. Only
+     * if it turns out better is it searched again with the full window to
+     * get its value. With PVS off it is searched with the full window.
+     */
+    public int getScoutValue(Position position, int square, int intelligence,
+                             int alpha, int beta, boolean split) {
+        if (!this.search.isPrincipalVariationSearch() || beta - alpha <= 1) {
+            return this.getMoveValue(position, square, intelligence, alpha, beta, split);
+        }
+        int value = this.getMoveValue(position, square, intelligence, alpha, alpha + 1, split);
+        if (value > alpha && value < beta && !this.isStopped()) {
+            value = this.getMoveValue(position, square, intelligence, alpha, beta, split);
+        }
+        return value;
+    }
+
+    /*
+     * This method is the recursive part of the miniMax algorithm. It
+     * returns the value of the position for the player whose turn it is,
+     * stopping early once a move is too good for the opponent to allow
+     * (alpha >= beta). Results are kept in the transposition table so
+     * positions reached by different move orders are only searched once.
+     * If split is true, the moves after the first are searched in parallel.
+     */
+    public int negamax(Position position, int intelligence, int alpha, int beta, boolean split) {
+        if (this.isOutOfBudget()) {
+            return 0;
+        }
+        if (intelligence == 0) {
+            this.reachLeaf(position);
+            if (this.evaluator != null) {
+                return this.evaluator.evaluate(position);
+            }
+            return position.evaluate(position.getSideToMove());
+        }
+
+        // only entries of exactly this depth are trusted, so the value of
+        // a position never depends on what earlier searches left behind.
+        long entry = this.table.probe(position.getHash());
+        int tableMove = TranspositionTable.NO_MOVE;
+        if (entry != 0) {
+            tableMove = this.search.getTableMove(entry);
+            if (TranspositionTable.getDepth(entry) == intelligence) {
+                int score = TranspositionTable.getScore(entry);
+                int bound = TranspositionTable.getBound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    this.table.addCutoff();
+                    return score;
+                }
+            }
+        }
+        int originalAlpha = alpha;
+
+        // checks for game over and returns high, low, or neutral value depending on outcome
+        if (position.isGameOver()) {
+            this.reachLeaf(position);
+            int discDiff = Long.bitCount(position.getOwn()) - Long.bitCount(position.getOpp());
+            if (discDiff > 0) {
+                return Constants.HIGH_VAL;
+            } else if (discDiff < 0) {
+                return Constants.LOW_VAL;
+            }
+            return Constants.NEUTRAL_VAL;
+        }
+
+        // checks if there are no moves and returns either a low value or
+        // does recursion through the algorithm again, depending on intelligence.
+        long moves = position.getMoves();
+        if (moves == 0) {
+            if (intelligence == 1) {
+                return Constants.LOW_VAL;
+            }
+            position.makePass();
+            int value = -this.negamax(position, intelligence - 1, -beta, -alpha, split);
+            position.undoMove();
+            return value;
+        }
+
+        // Multi-ProbCut: if a shallow search is far enough outside the
+        // window, the deep one most likely is too and is not needed.
+        if (this.probCut != null && intelligence >= ProbCut.MIN_DEPTH) {
+            int cut = this.tryProbCut(position, intelligence, alpha, beta);
+            if (cut != NO_CUT) {
+                return cut;
+            }
+        }
+
+        // the children of a depth 1 node are just evaluated, so ordering
+        // them would cost as much as searching them. A node's children
+        // have one less depth left, so they use the next row down.
+        int[] squares = this.getMoveRow(intelligence);
+        int ply = this.rootEmpties - Long.bitCount(position.getEmpty());
+        int count = 0;
+        if (intelligence > 1) {
+            count = orderMoves(position, moves, tableMove, this.search.getKiller(ply, 0),
+                    this.search.getKiller(ply, 1), this.search.getHistory(position.getSideToMove()), squares);
+        } else {
+            while (moves != 0) {
+                squares[count++] = Long.numberOfTrailingZeros(moves);
+                moves &= moves - 1;
+            }
+        }
+
+        this.interiorNodes++;
+        int bestVal = -Constants.INFINITE_VAL;
+        int bestSquare = TranspositionTable.NO_MOVE;
+        int[] values = null;
+        for (int k = 0; k < count; k++) {
+            if (k == 1 && split && intelligence >= Constants.MIN_SPLIT_DEPTH) {
+                // Young Brothers Wait: the eldest move has set alpha, so the
+                // younger ones can be searched in parallel.
+                values = new int[count];
+                this.search.searchSiblings(position, squares, count, values, intelligence, alpha, beta, false);
+                break;
+            }
+            int tempValue;
+            if (k == 0) {
+                tempValue = this.getMoveValue(position, squares[k], intelligence, alpha, beta, false);
+            } else {
+                tempValue = this.getScoutValue(position, squares[k], intelligence, alpha, beta, false);
+            }
+            if (this.isStopped()) {
+                return 0;
+            }
+            if (tempValue > bestVal) {
+                bestVal = tempValue;
+                bestSquare = squares[k];
+                if (bestVal > alpha) {
+                    alpha = bestVal;
+                    if (alpha >= beta) {
+                        this.betaCutoffs++;
+                        this.search.addCutoffMove(ply, position.getSideToMove(), bestSquare, intelligence);
+                        break;
+                    }
+                }
+            }
+        }
+        if (values != null) {
+            if (this.isStopped()) {
+                return 0;
+            }
+            for (int k = 1; k < count; k++) {
+                if (values[k] > bestVal) {
+                    bestVal = values[k];
+                    bestSquare = squares[k];
+                }
+            }
+        }
+
+        int bound = TranspositionTable.EXACT;
+        if (bestVal <= originalAlpha) {
+            bound = TranspositionTable.UPPER_BOUND;
+        } else if (bestVal >= beta) {
+            bound = TranspositionTable.LOWER_BOUND;
+        }
+        this.table.store(position.getHash(), intelligence, bound, bestVal, bestSquare);
+        return bestVal;
+    }
+
+    /*
+     * This method tries to cut a node off with Multi-ProbCut. A null
+     * window search at the shallow depth of the node's stage and depth
+     * checks whether the deep value is at least beta, then whether it is
+     * at most alpha, with the confidence the search was given. It returns
+     * beta or alpha if so, and NO_CUT if neither or if there is no line.
+     */
+    private int tryProbCut(Position position, int intelligence, int alpha, int beta) {
+        int empties = Long.bitCount(position.getEmpty());
+        int shallowDepth = this.probCut.getShallowDepth(empties, intelligence);
+        if (shallowDepth == 0) {
+            return NO_CUT;
+        }
+        if (beta < Constants.HIGH_VAL) {
+            int bound = this.probCut.getHighBound(empties, intelligence, beta, this.probCutConfidence);
+            if (bound < Constants.HIGH_VAL
+                    && this.negamax(position, shallowDepth, bound - 1, bound, false) >= bound) {
+                return beta;
+            }
+        }
+        if (alpha > Constants.LOW_VAL) {
+            int bound = this.probCut.getLowBound(empties, intelligence, alpha, this.probCutConfidence);
+            if (bound > Constants.LOW_VAL
+                    && this.negamax(position, shallowDepth, bound, bound + 1, false) <= bound) {
+                return alpha;
+            }
+        }
+        return NO_CUT;
+    }
+
+    /*
+     * This method notes how many moves from the root a leaf is, for the
+     * selective depth. Passes do not count.
+     */
+    private void reachLeaf(Position position) {
+        int depth = this.rootEmpties - Long.bitCount(position.getEmpty());
+        if (depth > this.selectiveDepth) {
+            this.selectiveDepth = depth;
+        }
+    }
+
+    /*
+     * This method counts a node and checks whether the search has been
+     * stopped. Nodes are handed to the Search every CHECK_INTERVAL nodes,
+     * which is when it checks the budget.
+     */
+    private boolean isOutOfBudget() {
+        this.nodes++;
+        if (this.nodes >= CHECK_INTERVAL) {
+            this.flushNodes();
+        }
+        return this.isStopped();
+    }
+
+    /*
+     * This method checks whether the search has been stopped. A helper
+     * also stops once the main thread has finished its search.
+     */
+    public boolean isStopped() {
+        return this.search.isStopped() || (this.helper && this.search.areHelpersStopped());
+    }
+
+    /*
+     * This method hands the nodes and stats counted so far to the Search.
+     */
+    public void flushNodes() {
+        this.search.addWorkerStats(this.selectiveDepth, this.interiorNodes, this.betaCutoffs);
+        this.interiorNodes = 0;
+        this.betaCutoffs = 0;
+        this.search.addNodes(this.nodes);
+        this.nodes = 0;
+    }
+
+    /*
+     * This method gets the move stack row for a node with the given depth
+     * left, making it the first time that depth is reached.
+     */
+    private int[] getMoveRow(int intelligence) {
+        if (intelligence >= this.moveStack.length) {
+            this.moveStack = Arrays.copyOf(this.moveStack, intelligence + 1);
+        }
+        int[] row = this.moveStack[intelligence];
+        if (row == null) {
+            row = new int[MAX_MOVES];
+            this.moveStack[intelligence] = row;
+        }
+        return row;
+    }
+
+    /*
+     * This method sorts the moves so the most promising are searched
+     * first, for callers outside the search, and returns them in a new
+     * array.
+     */
+    public static int[] orderMoves(Position position, long moves, int tableMove) {
+        int[] squares = new int[Long.bitCount(moves)];
+        orderMoves(position, moves, tableMove, TranspositionTable.NO_MOVE, TranspositionTable.NO_MOVE, null,
+                squares);
+        return squares;
+    }
+
+    /*
+     * This method sorts the moves into squares so the most promising are
+     * searched first, which lets alpha-beta cut off more, and returns how
+     * many there are. The transposition table's best move, if any, always
+     * goes first, then the two killers (NO_MOVE if there are none). The
+     * rest are ranked by square weight minus how many replies the move
+     * leaves the opponent, plus the move's history score if a history is
+     * given. While sorting, each move is one int with its key above its
+     * square, so no second array is needed; the square is stored as
+     * 63 - square so equal keys keep square order.
+     */
+    public static int orderMoves(Position position, long moves, int tableMove, int killer1, int killer2,
+                                 int[] history, int[] squares) {
+        int count = Long.bitCount(moves);
+        long own = position.getOwn();
+        long opp = position.getOpp();
+        for (int k = 0; k < count; k++) {
+            int square = Long.numberOfTrailingZeros(moves);
+            moves &= moves - 1;
+            long flips = Position.findFlips(own, opp, square);
+            long replies = Position.findMoves(opp & ~flips, own | flips | (1L << square));
+            int key = Constants.MOVE_WEIGHTS[Position.getRow(square)][Position.getCol(square)]
+                    - Constants.MOBILITY_WEIGHT * Long.bitCount(replies);
+            if (history != null) {
+                key += history[square] >> HISTORY_SHIFT;
+            }
+            if (square == tableMove) {
+                key = TABLE_MOVE_KEY;
+            } else if (square == killer1) {
+                key = KILLER_KEY;
+            } else if (square == killer2) {
+                key = KILLER_KEY - 1;
+            }
+            int packed = (key << SQUARE_BITS) | (63 - square);
+
+            // insertion sort, highest first
+            int slot = k;
+            while (slot > 0 && squares[slot - 1] < packed) {
+                squares[slot] = squares[slot - 1];
+                slot--;
+            }
+            squares[slot] = packed;
+        }
+        for (int k = 0; k < count; k++) {
+            squares[k] = 63 - (squares[k] & 63);
+        }
+        return count;
+    }
+}
@@ -21,7 +21,11 @@ public class SetupGame {
 
     /*
      * This method starts the actual game by creating the new Players
-     * and the new Referee.
+     * and the new Referee. Mode 0 is a human and the other modes are
+     * computer levels, which pick the time and node budget of each move.
+     * Computer players show their search stats in the controls, and
+     * ponder on a human opponent's time. Only a game between two
+     * computers waits between moves, so it can be watched.
      */
     public void startGame(int whitePlayerMode, int blackPlayerMode) {
 
@@ -29,18 +33,31 @@ public class SetupGame {
         if (whitePlayerMode == 0) {
             whitePlayer = new HumanPlayer(this.boardClass, Color.WHITE);
         } else {
-            whitePlayer = new ComputerPlayer(this.boardClass, Color.WHITE, whitePlayerMode);
+            ComputerPlayer computer = new ComputerPlayer(this.boardClass, Color.WHITE,
+                    Constants.LEVEL_TIME_MILLIS[whitePlayerMode], Constants.LEVEL_NODE_LIMITS[whitePlayerMode]);
+            computer.setStatsListener(this.controls::publishStats);
+            computer.setPondering(Constants.PONDER && blackPlayerMode == 0);
+            whitePlayer = computer;
         }
 
         Player blackPlayer;
         if (blackPlayerMode == 0) {
             blackPlayer = new HumanPlayer(this.boardClass, Color.BLACK);
         } else {
-            blackPlayer = new ComputerPlayer(this.boardClass, Color.BLACK, blackPlayerMode);
+            ComputerPlayer computer = new ComputerPlayer(this.boardClass, Color.BLACK,
+                    Constants.LEVEL_TIME_MILLIS[blackPlayerMode], Constants.LEVEL_NODE_LIMITS[blackPlayerMode]);
+            computer.setStatsListener(this.controls::publishStats);
+            computer.setPondering(Constants.PONDER && whitePlayerMode == 0);
+            blackPlayer = computer;
         }
-        Referee referee = new Referee(this.controls, whitePlayer, blackPlayer, this.boardClass);
+        long delayMillis = 0;
+        if (whitePlayerMode != 0 && blackPlayerMode != 0) {
+            delayMillis = Constants.COMPUTER_GAME_DELAY_MILLIS;
+        }
+        Referee referee = new Referee(this.controls, whitePlayer, blackPlayer, this.boardClass, delayMillis);
         whitePlayer.setReferee(referee);
         blackPlayer.setReferee(referee);
+        referee.start();
 
     }
 }
\ No newline at end of file
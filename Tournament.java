@@ -0,0 +1,272 @@
+package othello;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * This class plays two engine settings against each other without the
+ * window, many games at a time, to tell whether a change made the
+ * computer stronger. Games come in pairs that start from the same random
+ * opening with the colors swapped. It reports games per second, wins,
+ * draws and losses of the first settings, their Elo difference with a 95%
+ * error bar, and stops early once a sequential probability ratio test
+ * (SPRT) between elo0 and elo1 is decided. It runs without JavaFX:
+ *
+ *     java othello.Tournament [games] [seed] [workers] [settingsA] [settingsB] [elo0] [elo1]
+ *
+ * Settings are written as EngineSettings reads them, for example
+ * "depth=4,book=false". Each engine uses one thread unless told otherwise.
+ */
+public class Tournament {
+    private static final int OPENING_PLIES = 4;
+    private static final double SPRT_ALPHA = 0.05;
+    private static final double SPRT_BETA = 0.05;
+    // the normal approximation is too rough to stop on before this many games
+    private static final int SPRT_MIN_GAMES = 50;
+    private static final int REPORT_INTERVAL = 100;
+
+    private final String settingsA;
+    private final String settingsB;
+    private final long seed;
+    private final double elo0;
+    private final double elo1;
+    private final List<Engine> engines = Collections.synchronizedList(new ArrayList<>());
+    private final ThreadLocal<Engine[]> workerEngines;
+    private int wins;
+    private int draws;
+    private int losses;
+    private volatile boolean decided;
+    private String sprtResult = "undecided";
+    private long start;
+
+    /*
+     * This constructor sets the instance variables equal to what was passed through.
+     */
+    public Tournament(String settingsA, String settingsB, long seed, double elo0, double elo1) {
+        this.settingsA = settingsA;
+        this.settingsB = settingsB;
+        this.seed = seed;
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.workerEngines = ThreadLocal.withInitial(() -> new Engine[]{
+            this.createEngine(this.settingsA), this.createEngine(this.settingsB)});
+    }
+
+    /*
+     * Here is the mainline!
+     */
+    public static void main(String[] argv) throws InterruptedException {
+        int games = 1000;
+        long seed = 1;
+        int workers = Runtime.getRuntime().availableProcessors();
+        String settingsA = "";
+        String settingsB = "";
+        double elo0 = 0;
+        double elo1 = 10;
+        if (argv.length > 0) {
+            games = Integer.parseInt(argv[0]);
+        }
+        if (argv.length > 1) {
+            seed = Long.parseLong(argv[1]);
+        }
+        if (argv.length > 2) {
+            workers = Integer.parseInt(argv[2]);
+        }
+        if (argv.length > 3) {
+            settingsA = argv[3];
+        }
+        if (argv.length > 4) {
+            settingsB = argv[4];
+        }
+        if (argv.length > 5) {
+            elo0 = Double.parseDouble(argv[5]);
+        }
+        if (argv.length > 6) {
+            elo1 = Double.parseDouble(argv[6]);
+        }
+        new Tournament(settingsA, settingsB, seed, elo0, elo1).run(games, workers);
+    }
+
+    /*
+     * This method plays the games on a pool of worker threads, each with
+     * its own pair of engines, and prints the result.
+     */
+    public void run(int games, int workers) throws InterruptedException {
+        System.out.println("A: " + this.createSettings(this.settingsA));
+        System.out.println("B: " + this.createSettings(this.settingsB));
+        this.start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        for (int game = 0; game < games; game++) {
+            int index = game;
+            pool.execute(() -> this.playGame(index));
+        }
+        pool.shutdown();
+        pool.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        for (Engine engine : this.engines) {
+            engine.shutdown();
+        }
+        System.out.println("final: " + this.getReport());
+    }
+
+    /*
+     * This method plays one game. Games 2k and 2k + 1 share an opening,
+     * with A playing black in the first and white in the second.
+     */
+    private void playGame(int game) {
+        if (this.decided) {
+            return;
+        }
+        Engine[] pair = this.workerEngines.get();
+        Position position = new Position();
+        Random openingRandom = new Random(this.seed * 1000003 + game / 2);
+        for (int ply = 0; ply < OPENING_PLIES && !position.isGameOver(); ply++) {
+            long moves = position.getMoves();
+            for (int skip = openingRandom.nextInt(Long.bitCount(moves)); skip > 0; skip--) {
+                moves &= moves - 1;
+            }
+            position.play(Long.numberOfTrailingZeros(moves));
+        }
+        // the engines are reused between games, so reseed them for each
+        pair[0].getRandom().setSeed(this.seed * 1000003 + game);
+        pair[1].getRandom().setSeed(this.seed * 1000033 + game);
+
+        boolean aIsBlack = game % 2 == 0;
+        while (!position.isGameOver()) {
+            if (position.getMoves() == 0) {
+                position.pass();
+                continue;
+            }
+            Engine engine = pair[1];
+            if ((position.getSideToMove() == Constants.BLACK) == aIsBlack) {
+                engine = pair[0];
+            }
+            Move move = engine.chooseMove(position);
+            position.play(Position.square(move.getI(), move.getJ()));
+        }
+        int blackDiff = position.getBlackCount() - position.getWhiteCount();
+        if (!aIsBlack) {
+            blackDiff = -blackDiff;
+        }
+        this.addResult(Integer.signum(blackDiff));
+    }
+
+    /*
+     * This method counts a result from A's point of view (1 win, 0 draw,
+     * -1 loss) and checks whether the SPRT is decided.
+     */
+    private synchronized void addResult(int result) {
+        if (result > 0) {
+            this.wins++;
+        } else if (result == 0) {
+            this.draws++;
+        } else {
+            this.losses++;
+        }
+        if (!this.decided && this.wins + this.draws + this.losses >= SPRT_MIN_GAMES) {
+            double llr = this.getLogLikelihoodRatio();
+            if (llr >= Math.log((1 - SPRT_BETA) / SPRT_ALPHA)) {
+                this.decided = true;
+                this.sprtResult = "H1 accepted (A is at least " + this.elo1 + " Elo stronger)";
+            } else if (llr <= Math.log(SPRT_BETA / (1 - SPRT_ALPHA))) {
+                this.decided = true;
+                this.sprtResult = "H0 accepted (A is at most " + this.elo0 + " Elo stronger)";
+            }
+        }
+        if ((this.wins + this.draws + this.losses) % REPORT_INTERVAL == 0) {
+            System.out.println(this.getReport());
+        }
+    }
+
+    /*
+     * This method describes the results so far.
+     */
+    private synchronized String getReport() {
+        int games = this.wins + this.draws + this.losses;
+        double seconds = (System.nanoTime() - this.start) / 1e9;
+        double score = this.getScore();
+        double error = 1.96 * Math.sqrt(this.getVariance() / Math.max(1, games));
+        double elo = getElo(score);
+        return String.format("%d games (%.1f games/s), A: +%d =%d -%d, Elo %.1f (%.1f to %.1f), "
+                + "SPRT LLR %.2f %s", games, games / seconds, this.wins, this.draws, this.losses, elo,
+                getElo(score - error), getElo(score + error), this.getLogLikelihoodRatio(), this.sprtResult);
+    }
+
+    /*
+     * This method gets A's average score, counting a draw as half a win.
+     */
+    private double getScore() {
+        int games = this.wins + this.draws + this.losses;
+        if (games == 0) {
+            return 0.5;
+        }
+        return (this.wins + 0.5 * this.draws) / games;
+    }
+
+    /*
+     * This method gets the variance of the score of one game.
+     */
+    private double getVariance() {
+        int games = this.wins + this.draws + this.losses;
+        if (games == 0) {
+            return 0;
+        }
+        double score = this.getScore();
+        return (this.wins * Math.pow(1 - score, 2) + this.draws * Math.pow(0.5 - score, 2)
+                + this.losses * Math.pow(score, 2)) / games;
+    }
+
+    /*
+     * This method gets the log likelihood ratio of "A is elo1 stronger"
+     * against "A is elo0 stronger", using the normal approximation of
+     * the game results.
+     */
+    private double getLogLikelihoodRatio() {
+        double variance = this.getVariance();
+        if (variance == 0) {
+            return 0;
+        }
+        double score0 = getExpectedScore(this.elo0);
+        double score1 = getExpectedScore(this.elo1);
+        int games = this.wins + this.draws + this.losses;
+        return games * (score1 - score0) * (2 * this.getScore() - score0 - score1) / (2 * variance);
+    }
+
+    /*
+     * This method turns an Elo difference into the expected score.
+     */
+    private static double getExpectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /*
+     * This method turns an expected score into an Elo difference.
+     */
+    private static double getElo(double score) {
+        score = Math.min(Math.max(score, 1e-6), 1 - 1e-6);
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /*
+     * This method reads settings, with one search thread unless they say
+     * otherwise since the games already use every core.
+     */
+    private EngineSettings createSettings(String text) {
+        EngineSettings settings = new EngineSettings();
+        settings.setThreads(1);
+        return settings.apply(text);
+    }
+
+    /*
+     * This method creates an engine for a worker thread.
+     */
+    private Engine createEngine(String text) {
+        Engine engine = new Engine(this.createSettings(text), new Random());
+        this.engines.add(engine);
+        return engine;
+    }
+}
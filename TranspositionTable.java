@@ -0,0 +1,223 @@
+package othello;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * This is the TranspositionTable class. It remembers the results of
+ * positions the search has already looked at, keyed by their Zobrist
+ * hash. The table is split into buckets of two entries: the first keeps
+ * the deepest result seen (unless it is from an older move), the second
+ * is always replaced. Threads share the table without locking: each key
+ * is stored XORed with its entry, so an entry torn by two threads writing
+ * at once no longer matches its hash and is ignored.
+ */
+public class TranspositionTable {
+    public static final int EXACT = 0;
+    public static final int LOWER_BOUND = 1;
+    public static final int UPPER_BOUND = 2;
+    public static final int NO_MOVE = -1;
+
+    private static final int ENTRY_BYTES = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private volatile int generation;
+    private final LongAdder probes;
+    private final LongAdder hits;
+    private final LongAdder cutoffs;
+
+    /*
+     * This constructor creates the largest table (a power of two
+     * entries) that fits in the given number of megabytes.
+     */
+    public TranspositionTable(int megabytes) {
+        long maxEntries = Math.max(2, (long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        int entries = (int) Math.min(Long.highestOneBit(maxEntries), 1 << 30);
+        this.keys = new long[entries];
+        this.data = new long[entries];
+        this.bucketMask = entries / 2 - 1;
+        this.probes = new LongAdder();
+        this.hits = new LongAdder();
+        this.cutoffs = new LongAdder();
+    }
+
+    /*
+     * This method is called before every new search so that results from
+     * earlier moves can be replaced first.
+     */
+    public void newSearch() {
+        this.generation = (this.generation + 1) & 0xff;
+    }
+
+    /*
+     * This method looks up a position. It returns the packed entry, or 0
+     * if the position is not in the table. The entry is read with the
+     * static getters below.
+     */
+    public long probe(long hash) {
+        this.probes.increment();
+        int slot = this.getBucket(hash);
+        for (int k = slot; k < slot + 2; k++) {
+            long entry = this.data[k];
+            if ((this.keys[k] ^ entry) == hash && entry != 0) {
+                this.hits.increment();
+                return entry;
+            }
+        }
+        return 0;
+    }
+
+    /*
+     * This method stores the result of searching a position.
+     */
+    public void store(long hash, int depth, int bound, int score, int bestMove) {
+        int slot = this.getBucket(hash);
+        long entry = pack(depth, bound, score, bestMove, this.generation);
+        long oldEntry = this.data[slot];
+        if ((this.keys[slot] ^ oldEntry) == hash || oldEntry == 0 || depth >= getDepth(oldEntry)
+                || getGeneration(oldEntry) != this.generation) {
+            this.keys[slot] = hash ^ entry;
+            this.data[slot] = entry;
+        } else {
+            this.keys[slot + 1] = hash ^ entry;
+            this.data[slot + 1] = entry;
+        }
+    }
+
+    /*
+     * This method counts a probe whose entry was good enough to end the
+     * search of that position.
+     */
+    public void addCutoff() {
+        this.cutoffs.increment();
+    }
+
+    /*
+     * This method empties the table and its counters.
+     */
+    public void clear() {
+        Arrays.fill(this.keys, 0);
+        Arrays.fill(this.data, 0);
+        this.probes.reset();
+        this.hits.reset();
+        this.cutoffs.reset();
+    }
+
+    /*
+     * This method gets the index of the first entry of a hash's bucket.
+     */
+    private int getBucket(long hash) {
+        return ((int) (hash >>> 32) & this.bucketMask) * 2;
+    }
+
+    /*
+     * This method packs an entry into one long. The score takes the low 32
+     * bits, followed by 8 bits of depth, 2 of bound, 7 of move and 8 of
+     * generation. The top bit is set so a real entry is never 0.
+     */
+    private static long pack(int depth, int bound, int score, int bestMove, int generation) {
+        return (score & 0xffffffffL)
+                | ((long) depth & 0xff) << 32
+                | ((long) bound & 0x3) << 40
+                | ((long) (bestMove + 1) & 0x7f) << 42
+                | ((long) generation & 0xff) << 49
+                | 1L << 63;
+    }
+
+    /*
+     * This getter method gets the score of an entry.
+     */
+    public static int getScore(long entry) {
+        return (int) entry;
+    }
+
+    /*
+     * This getter method gets the depth an entry was searched to.
+     */
+    public static int getDepth(long entry) {
+        return (int) (entry >>> 32) & 0xff;
+    }
+
+    /*
+     * This getter method gets whether the score is exact or a bound.
+     */
+    public static int getBound(long entry) {
+        return (int) (entry >>> 40) & 0x3;
+    }
+
+    /*
+     * This getter method gets the best move square of an entry, or NO_MOVE.
+     */
+    public static int getBestMove(long entry) {
+        return ((int) (entry >>> 42) & 0x7f) - 1;
+    }
+
+    /*
+     * This getter method gets the search an entry was stored in.
+     */
+    private static int getGeneration(long entry) {
+        return (int) (entry >>> 49) & 0xff;
+    }
+
+    /*
+     * This getter method gets the number of entries the table holds.
+     */
+    public int getSize() {
+        return this.keys.length;
+    }
+
+    /*
+     * This getter method gets the number of probes so far.
+     */
+    public long getProbes() {
+        return this.probes.sum();
+    }
+
+    /*
+     * This getter method gets the number of probes that found their position.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /*
+     * This getter method gets the number of probes that ended the search
+     * of their position.
+     */
+    public long getCutoffs() {
+        return this.cutoffs.sum();
+    }
+
+    /*
+     * This getter method gets the share of probes that found their position.
+     */
+    public double getHitRate() {
+        long probeCount = this.probes.sum();
+        if (probeCount == 0) {
+            return 0;
+        }
+        return (double) this.hits.sum() / probeCount;
+    }
+
+    /*
+     * This getter method gets the share of probes that ended the search
+     * of their position.
+     */
+    public double getCutoffRate() {
+        long probeCount = this.probes.sum();
+        if (probeCount == 0) {
+            return 0;
+        }
+        return (double) this.cutoffs.sum() / probeCount;
+    }
+
+    /*
+     * This method describes the table's hit and cutoff rates.
+     */
+    public String getReport() {
+        return String.format("TT: %d probes, %.1f%% hits, %.1f%% cutoffs",
+                this.probes.sum(), 100 * this.getHitRate(), 100 * this.getCutoffRate());
+    }
+}
@@ -0,0 +1,160 @@
+package othello;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+ * This class reads the games of a WTHOR database file (.wtb), the format
+ * the French Othello Federation publishes its game archive in. After a
+ * 16-byte header, each game is 68 bytes: the tournament, black player and
+ * white player numbers (little-endian shorts), black's score, the
+ * theoretical score, then 60 moves written as 10 * row + column (a = 1),
+ * with 0 after the last move. Player names come from the matching
+ * players file (WTHOR.JOU), if one is given. Like GameRecordReader, it
+ * reads through one fixed buffer.
+ */
+public class WthorReader implements AutoCloseable {
+    private static final int HEADER_BYTES = 16;
+    private static final int GAME_BYTES = 68;
+    private static final int NAME_BYTES = 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final String[] players;
+    private final int gameCount;
+    private int gamesRead;
+    private int skipped;
+
+    /*
+     * This constructor opens the game file and reads the player names.
+     * playersPath can be null, and then players are named by number.
+     */
+    public WthorReader(Path path, Path playersPath) throws IOException {
+        if (playersPath != null) {
+            this.players = readPlayers(playersPath);
+        } else {
+            this.players = new String[0];
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.buffer = ByteBuffer.allocateDirect(GAME_BYTES * 1024).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining() && this.channel.read(header) >= 0) {
+            // keep reading until the header is full or the file ends
+        }
+        // byte 12 is the board size, where 0 also means 8
+        if (header.hasRemaining() || (header.get(12) != 0 && header.get(12) != 8)) {
+            this.channel.close();
+            throw new IOException(path + " is not a WTHOR file of 8x8 games");
+        }
+        this.gameCount = header.getInt(4);
+        this.buffer.flip();
+    }
+
+    /*
+     * This method reads the player names of a WTHOR players file: a
+     * 16-byte header, then 20 bytes a name padded with zeros.
+     */
+    public static String[] readPlayers(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        int count = Math.max(0, (bytes.length - HEADER_BYTES) / NAME_BYTES);
+        String[] names = new String[count];
+        for (int k = 0; k < count; k++) {
+            int start = HEADER_BYTES + k * NAME_BYTES;
+            int end = start;
+            while (end < start + NAME_BYTES && bytes[end] != 0) {
+                end++;
+            }
+            names[k] = new String(bytes, start, end - start, StandardCharsets.ISO_8859_1).trim();
+        }
+        return names;
+    }
+
+    /*
+     * This method reads the next game. It returns null after the last
+     * one, and skips games whose moves are not legal.
+     */
+    public GameRecord next() throws IOException {
+        while (this.gamesRead < this.gameCount) {
+            if (this.buffer.remaining() < GAME_BYTES) {
+                this.buffer.compact();
+                while (this.buffer.position() < GAME_BYTES && this.channel.read(this.buffer) >= 0) {
+                    // keep reading until a whole game is in the buffer
+                }
+                this.buffer.flip();
+                if (this.buffer.remaining() < GAME_BYTES) {
+                    throw new IOException("the file ends in the middle of a game");
+                }
+            }
+            this.gamesRead++;
+            this.buffer.getShort();
+            int black = this.buffer.getShort() & 0xffff;
+            int white = this.buffer.getShort() & 0xffff;
+            int blackScore = this.buffer.get() & 0xff;
+            this.buffer.get();
+            int[] moves = new int[GameRecord.MAX_MOVES];
+            int moveCount = 0;
+            boolean valid = true;
+            for (int k = 0; k < GameRecord.MAX_MOVES; k++) {
+                int move = this.buffer.get() & 0xff;
+                int row = move / 10;
+                int col = move % 10;
+                if (move == 0 || moveCount < k) {
+                    continue;
+                }
+                if (row < 1 || row > 8 || col < 1 || col > 8) {
+                    valid = false;
+                }
+                // column a is on the right of this board, see Position.getSquareName
+                moves[moveCount++] = Position.square(row, 9 - col);
+            }
+            int[] played = new int[moveCount];
+            System.arraycopy(moves, 0, played, 0, moveCount);
+            if (!valid || GameRecord.replay(played) == null) {
+                this.skipped++;
+                continue;
+            }
+            // WTHOR gives the empty squares to the winner, so the scores add up to 64
+            return new GameRecord(this.getName(black), this.getName(white), blackScore, 64 - blackScore, played);
+        }
+        return null;
+    }
+
+    /*
+     * This getter method gets the name of a player number.
+     */
+    private String getName(int player) {
+        if (player < this.players.length) {
+            return this.players[player];
+        }
+        return "#" + player;
+    }
+
+    /*
+     * This getter method gets the number of games the header says the file holds.
+     */
+    public int getGameCount() {
+        return this.gameCount;
+    }
+
+    /*
+     * This getter method gets how many games were skipped because their
+     * moves were not legal.
+     */
+    public int getSkipped() {
+        return this.skipped;
+    }
+
+    /*
+     * This method closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
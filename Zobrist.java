@@ -0,0 +1,67 @@
+package othello;
+
+import java.util.SplittableRandom;
+
+/*
+ * This class holds the random keys used to hash a Position. A hash is
+ * the XOR of one key per piece (by color and square) plus a key for
+ * white to move, so Position can update it as pieces are placed and
+ * flipped instead of recomputing it.
+ */
+public class Zobrist {
+    private static final long[][] PIECE_KEYS = new long[2][64];
+    private static final long[] FLIP_KEYS = new long[64];
+    private static final long SIDE_KEY;
+
+    static {
+        // fixed seed so hashes are the same on every run
+        SplittableRandom random = new SplittableRandom(0x07E11011L);
+        for (int square = 0; square < 64; square++) {
+            PIECE_KEYS[Constants.WHITE][square] = random.nextLong();
+            PIECE_KEYS[Constants.BLACK][square] = random.nextLong();
+            FLIP_KEYS[square] = PIECE_KEYS[Constants.WHITE][square] ^ PIECE_KEYS[Constants.BLACK][square];
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    /*
+     * This method hashes a whole position from scratch.
+     */
+    public static long hash(long black, long white, int sideToMove) {
+        long hash = 0;
+        while (black != 0) {
+            hash ^= PIECE_KEYS[Constants.BLACK][Long.numberOfTrailingZeros(black)];
+            black &= black - 1;
+        }
+        while (white != 0) {
+            hash ^= PIECE_KEYS[Constants.WHITE][Long.numberOfTrailingZeros(white)];
+            white &= white - 1;
+        }
+        if (sideToMove == Constants.WHITE) {
+            hash ^= SIDE_KEY;
+        }
+        return hash;
+    }
+
+    /*
+     * This getter method gets the key of a piece of a color on a square.
+     */
+    public static long getPieceKey(int color, int square) {
+        return PIECE_KEYS[color][square];
+    }
+
+    /*
+     * This getter method gets the key that changes the color of the
+     * piece on a square.
+     */
+    public static long getFlipKey(int square) {
+        return FLIP_KEYS[square];
+    }
+
+    /*
+     * This getter method gets the key that changes whose turn it is.
+     */
+    public static long getSideKey() {
+        return SIDE_KEY;
+    }
+}
@@ -0,0 +1,33 @@
+package othello;
+
+/*
+ * This class makes the fixed positions the benchmarks run on. Each
+ * stage of the game has its own set, made by playing the same seeded
+ * random moves every time, so every run measures the same work.
+ */
+public class BenchmarkPositions {
+    public static final int COUNT = 8;
+    private static final long SEED = 20240601L;
+
+    /*
+     * This method gets the positions of a stage: "opening" (52 empty
+     * squares), "midgame" (32) or "endgame" (14, which the EndgameSolver
+     * solves).
+     */
+    public static Position[] get(String stage) {
+        return switch (stage) {
+            case "opening" -> make(8);
+            case "midgame" -> make(28);
+            case "endgame" -> make(46);
+            default -> throw new IllegalArgumentException("unknown stage: " + stage);
+        };
+    }
+
+    /*
+     * This method plays random games and keeps the position after the
+     * given number of moves when the player to move has a choice.
+     */
+    private static Position[] make(int plies) {
+        return SearchSpeedup.makePositions(COUNT, SEED + plies, plies, plies).toArray(new Position[0]);
+    }
+}
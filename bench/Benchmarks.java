@@ -0,0 +1,32 @@
+package othello;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * This class runs the benchmarks with the GC profiler, which adds the
+ * bytes allocated per operation (gc.alloc.rate.norm) to each result. An
+ * argument picks the benchmarks to run by name, for example
+ * "PositionBenchmark.makeAndUndo"; with none, all of them run.
+ */
+public class Benchmarks {
+
+    /*
+     * Here is the mainline!
+     */
+    public static void main(String[] argv) throws RunnerException {
+        OptionsBuilder options = new OptionsBuilder();
+        if (argv.length > 0) {
+            for (String name : argv) {
+                options.include(name);
+            }
+        } else {
+            options.include("othello\\..*Benchmark");
+        }
+        Options built = options.addProfiler(GCProfiler.class).build();
+        new Runner(built).run();
+    }
+}
@@ -0,0 +1,138 @@
+package othello;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * These benchmarks time the work the search does at every node: finding
+ * the legal moves and their flips, evaluating, playing a move on a copy
+ * or with makeMove/undoMove, and checking for passes and the end of the
+ * game. Each one goes over every position of a stage, so the times are
+ * per BenchmarkPositions.COUNT positions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionBenchmark {
+    @Param({"opening", "midgame", "endgame"})
+    private String stage;
+
+    private Position[] positions;
+    // zero weights cost the same to look up as trained ones
+    private final PatternEvaluator patterns = new PatternEvaluator();
+
+    /*
+     * This method makes the positions of the stage.
+     */
+    @Setup
+    public void setUp() {
+        this.positions = BenchmarkPositions.get(this.stage);
+    }
+
+    /*
+     * This benchmark finds the legal moves of the player to move.
+     */
+    @Benchmark
+    public void getMoves(Blackhole blackhole) {
+        for (Position position : this.positions) {
+            blackhole.consume(position.getMoves());
+        }
+    }
+
+    /*
+     * This benchmark finds the flips of every legal move, which is what
+     * Board.checkMoveValidity asks the position for.
+     */
+    @Benchmark
+    public void getFlips(Blackhole blackhole) {
+        for (Position position : this.positions) {
+            long moves = position.getMoves();
+            while (moves != 0) {
+                blackhole.consume(position.getFlips(Long.numberOfTrailingZeros(moves), position.getSideToMove()));
+                moves &= moves - 1;
+            }
+        }
+    }
+
+    /*
+     * This benchmark evaluates each position for the player to move.
+     */
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+        for (Position position : this.positions) {
+            blackhole.consume(position.evaluate(position.getSideToMove()));
+        }
+    }
+
+    /*
+     * This benchmark values each position with the pattern weights, the
+     * way the search does at its leaves when it has them.
+     */
+    @Benchmark
+    public void evaluatePatterns(Blackhole blackhole) {
+        for (Position position : this.positions) {
+            blackhole.consume(this.patterns.evaluate(position));
+        }
+    }
+
+    /*
+     * This benchmark plays every legal move on a fresh copy, the way the
+     * search used to before it had makeMove and undoMove.
+     */
+    @Benchmark
+    public void copyAndPlay(Blackhole blackhole) {
+        for (Position position : this.positions) {
+            long moves = position.getMoves();
+            while (moves != 0) {
+                Position copy = new Position(position);
+                copy.play(Long.numberOfTrailingZeros(moves));
+                blackhole.consume(copy);
+                moves &= moves - 1;
+            }
+        }
+    }
+
+    /*
+     * This benchmark plays and takes back every legal move in place.
+     */
+    @Benchmark
+    public void makeAndUndo(Blackhole blackhole) {
+        for (Position position : this.positions) {
+            long moves = position.getMoves();
+            while (moves != 0) {
+                position.makeMove(Long.numberOfTrailingZeros(moves));
+                blackhole.consume(position.getHash());
+                position.undoMove();
+                moves &= moves - 1;
+            }
+        }
+    }
+
+    /*
+     * This benchmark checks whether each color has to pass and whether
+     * the game is over, as Board.areNoMoves and checkGameOver do.
+     */
+    @Benchmark
+    public void noMovesAndGameOver(Blackhole blackhole) {
+        for (Position position : this.positions) {
+            blackhole.consume(position.getMoves(Constants.WHITE) == 0);
+            blackhole.consume(position.getMoves(Constants.BLACK) == 0);
+            blackhole.consume(position.isGameOver());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package othello;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * This benchmark times a whole single threaded getBestMove to a fixed
+ * depth on every position of a stage. The transposition table is
+ * cleared before each call so every call does the same work. Endgame
+ * positions are solved exactly by the EndgameSolver whatever the depth.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+    @Param({"opening", "midgame", "endgame"})
+    private String stage;
+
+    @Param({"4", "6"})
+    private int depth;
+
+    private Position[] positions;
+    private Search search;
+
+    /*
+     * This method makes the positions of the stage and the search.
+     */
+    @Setup
+    public void setUp() {
+        this.positions = BenchmarkPositions.get(this.stage);
+        this.search = new Search(Constants.TABLE_MEGABYTES, 1, new Random(1));
+    }
+
+    /*
+     * This method empties the transposition table before each call.
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        this.search.getTable().clear();
+    }
+
+    /*
+     * This method releases the search once the benchmark is done.
+     */
+    @TearDown
+    public void tearDown() {
+        this.search.shutdown();
+    }
+
+    /*
+     * This benchmark finds the best move of every position of the stage.
+     */
+    @Benchmark
+    public void getBestMove(Blackhole blackhole) {
+        for (Position position : this.positions) {
+            blackhole.consume(this.search.getBestMove(position, this.depth));
+        }
+    }
+}